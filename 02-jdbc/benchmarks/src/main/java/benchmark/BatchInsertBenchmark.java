@@ -0,0 +1,70 @@
+package main.java.benchmark;
+
+import main.java.model.Student;
+import main.java.service.StudentService;
+import main.java.service.impl.StudentServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// AddStudent called once per row against addStudents with executeBatch, for the same set of rows
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+
+    @Param({"1000", "10000"})
+    int rows;
+
+    // only used by the batched variant
+    @Param({"100", "1000"})
+    int batchSize;
+
+    private List<Student> students;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkDatabase.start(4);
+        students = BenchmarkDatabase.students(rows);
+        studentService = new StudentServiceImpl(batchSize);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTable() {
+        BenchmarkDatabase.truncate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkDatabase.shutdown();
+    }
+
+    @Benchmark
+    public void perRowLoop() {
+        for (Student student : students) {
+            studentService.AddStudent(student);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> batched() {
+        return studentService.addStudents(students);
+    }
+}
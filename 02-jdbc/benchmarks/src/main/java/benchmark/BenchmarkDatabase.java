@@ -0,0 +1,66 @@
+package main.java.benchmark;
+
+import main.java.connection.DBConnection;
+import main.java.connection.pool.PoolConfig;
+import main.java.model.Student;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+// in-memory H2 database in MySQL mode that stands in for studentDatabase during benchmarks
+public final class BenchmarkDatabase {
+
+    public static final String URL = "jdbc:h2:mem:studentDatabase;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private BenchmarkDatabase() {
+    }
+
+    // points DBConnection at a fresh, empty student table
+    public static void start(int poolSize) {
+        start(PoolConfig.builder().url(URL).minIdle(1).maxSize(poolSize).build());
+    }
+
+    public static void start(int poolSize, int statementCacheSize) {
+        start(PoolConfig.builder().url(URL).minIdle(1).maxSize(poolSize).statementCacheSize(statementCacheSize).build());
+    }
+
+    private static void start(PoolConfig config) {
+        DBConnection.configure(config);
+        execute("DROP TABLE IF EXISTS student",
+                // same layout as database/db_quaries.sql
+                "CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+    }
+
+    public static void truncate() {
+        execute("TRUNCATE TABLE student RESTART IDENTITY");
+    }
+
+    public static void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    public static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            students.add(Student.builder()
+                    .name("Student " + i)
+                    .gpa(2 + (i % 200) / 100.0)
+                    .phone(String.format("011%08d", i))
+                    .build());
+        }
+        return students;
+    }
+
+    private static void execute(String... statements) {
+        try (Connection con = DBConnection.getConnection(); Statement statement = con.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not prepare the benchmark database", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package main.java.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs {@link DataAccessBenchmark} once per thread count and writes each run to
+ * {@code target/jmh-results/data-access-<threads>-threads.json}, ready to diff against earlier runs.
+ * <pre>
+ * java -cp target/benchmarks.jar main.java.benchmark.BenchmarkRunner 1 4 16
+ * </pre>
+ * Without arguments it uses 1, 4 and 16 threads.
+ */
+public class BenchmarkRunner {
+
+    private static final int[] DEFAULT_THREADS = {1, 4, 16};
+
+    public static void main(String[] args) throws RunnerException {
+        int[] threadCounts = DEFAULT_THREADS;
+        if (args.length > 0) {
+            threadCounts = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                threadCounts[i] = Integer.parseInt(args[i]);
+            }
+        }
+        File resultDirectory = new File("target/jmh-results");
+        if (!resultDirectory.isDirectory() && !resultDirectory.mkdirs()) {
+            throw new IllegalStateException("Could not create " + resultDirectory);
+        }
+        for (int threads : threadCounts) {
+            Options options = new OptionsBuilder()
+                    .include(DataAccessBenchmark.class.getName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(resultDirectory, "data-access-" + threads + "-threads.json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package main.java.benchmark;
+
+import main.java.model.Student;
+import main.java.service.StudentService;
+import main.java.service.impl.CachingStudentService;
+import main.java.service.impl.InMemoryStudentService;
+import main.java.service.impl.StudentServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The main read and write calls of each data-access variant against a table of {@code rows} students:
+ * <ul>
+ *     <li>{@code driverManager}: a new connection per call, as before the pool ({@link DriverManagerStudentService})</li>
+ *     <li>{@code pooled}: {@link StudentServiceImpl} on the connection pool with its statement cache</li>
+ *     <li>{@code pooledNoStatementCache}: the same with the statement cache switched off</li>
+ *     <li>{@code cached}: {@link CachingStudentService} in front of the pooled service</li>
+ *     <li>{@code inMemory}: {@link InMemoryStudentService}, no database at all</li>
+ * </ul>
+ * Run it through {@link BenchmarkRunner} to repeat it for several thread counts and keep the results as JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataAccessBenchmark {
+
+    private static final int POOL_SIZE = 16;
+
+    @Param({"driverManager", "pooled", "pooledNoStatementCache", "cached", "inMemory"})
+    String engine;
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private StudentService studentService;
+    private Student newStudent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Student> students = BenchmarkDatabase.students(rows);
+        newStudent = students.get(0);
+        if (engine.equals("inMemory")) {
+            studentService = new InMemoryStudentService();
+            studentService.addStudents(students);
+            return;
+        }
+        BenchmarkDatabase.start(POOL_SIZE, engine.equals("pooledNoStatementCache") ? 0 : 32);
+        new StudentServiceImpl(1_000).addStudents(students);
+        switch (engine) {
+            case "driverManager":
+                studentService = new DriverManagerStudentService();
+                break;
+            case "cached":
+                studentService = new CachingStudentService(new StudentServiceImpl(), rows, 10, TimeUnit.MINUTES);
+                break;
+            default:
+                studentService = new StudentServiceImpl();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (!engine.equals("inMemory")) {
+            BenchmarkDatabase.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Student getStuById() {
+        return studentService.getStuById(ThreadLocalRandom.current().nextInt(1, rows + 1));
+    }
+
+    @Benchmark
+    public List<Student> getAllStudent() {
+        return studentService.getAllStudent();
+    }
+
+    // every call adds a row, so the table keeps growing during the trial
+    @Benchmark
+    public void insert() {
+        studentService.AddStudent(newStudent);
+    }
+}
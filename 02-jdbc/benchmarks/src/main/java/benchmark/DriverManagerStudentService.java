@@ -0,0 +1,70 @@
+package main.java.benchmark;
+
+import main.java.model.Phone;
+import main.java.model.Student;
+import main.java.service.impl.StudentServiceImpl;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// baseline: getAllStudent, getStuById and AddStudent as they were before the pool, with a new DriverManager
+// connection, a freshly prepared statement and column-label mapping on every call; the rest is inherited
+public class DriverManagerStudentService extends StudentServiceImpl {
+
+    @Override
+    public List<Student> getAllStudent() {
+        List<Student> allStudent = new ArrayList<>();
+        try (Connection con = DriverManager.getConnection(BenchmarkDatabase.URL);
+             PreparedStatement preparedStatement = con.prepareStatement("SELECT * FROM student")) {
+            ResultSet resultSet = preparedStatement.executeQuery();
+            while (resultSet.next()) {
+                allStudent.add(map(resultSet));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return allStudent;
+    }
+
+    @Override
+    public Student getStuById(int id) {
+        try (Connection con = DriverManager.getConnection(BenchmarkDatabase.URL);
+             PreparedStatement preparedStatement = con.prepareStatement("SELECT * FROM student WHERE id=?")) {
+            preparedStatement.setInt(1, id);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            if (resultSet.next()) {
+                return map(resultSet);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public void AddStudent(Student student) {
+        try (Connection con = DriverManager.getConnection(BenchmarkDatabase.URL);
+             PreparedStatement preparedStatement = con.prepareStatement("INSERT INTO student (name,gpa,phone) VALUES(?,?,?)")) {
+            preparedStatement.setString(1, student.getStudentName());
+            preparedStatement.setDouble(2, student.getGpa());
+            preparedStatement.setLong(3, student.getPhone().toE164());
+            preparedStatement.execute();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static Student map(ResultSet resultSet) throws SQLException {
+        return Student.builder()
+                .id(resultSet.getInt("id"))
+                .name(resultSet.getString("name"))
+                .phone(Phone.fromE164(resultSet.getLong("phone")))
+                .gpa(resultSet.getDouble("gpa"))
+                .build();
+    }
+}
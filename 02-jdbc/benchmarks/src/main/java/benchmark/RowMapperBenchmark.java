@@ -0,0 +1,87 @@
+package main.java.benchmark;
+
+import main.java.connection.DBConnection;
+import main.java.mapper.StudentRowMapper;
+import main.java.model.Phone;
+import main.java.model.Student;
+import main.java.service.impl.StudentServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row mapping cost in isolation: the student table is copied once into a CachedRowSet,
+ * so each operation only walks the rows and maps them. Run with {@code -prof gc} to compare
+ * the bytes allocated per operation of the builder-and-label path with the index-based mapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMapperBenchmark {
+
+    @Param({"1000"})
+    int rows;
+
+    private CachedRowSet resultSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkDatabase.start(1);
+        new StudentServiceImpl().addStudents(BenchmarkDatabase.students(rows));
+        resultSet = RowSetProvider.newFactory().createCachedRowSet();
+        try (Connection con = DBConnection.getConnection();
+             PreparedStatement preparedStatement = con.prepareStatement("SELECT * FROM student")) {
+            resultSet.populate(preparedStatement.executeQuery());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        resultSet.close();
+        BenchmarkDatabase.shutdown();
+    }
+
+    // how StudentServiceImpl mapped rows before StudentRowMapper
+    @Benchmark
+    public void builderWithColumnLabels(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        while (resultSet.next()) {
+            blackhole.consume(Student.builder()
+                    .id(resultSet.getInt("id"))
+                    .name(resultSet.getString("name"))
+                    .phone(Phone.fromE164(resultSet.getLong("phone")))
+                    .gpa(resultSet.getDouble("gpa"))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void rowMapper(Blackhole blackhole) throws SQLException {
+        resultSet.beforeFirst();
+        StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
+        while (resultSet.next()) {
+            blackhole.consume(rowMapper.mapRow(resultSet));
+        }
+    }
+}
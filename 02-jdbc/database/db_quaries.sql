@@ -8,5 +8,6 @@ CREATE TABLE student(
 id INT(15)PRIMARY KEY AUTO_INCREMENT,
 name VARCHAR(15),
 gpa DOUBLE,
-phone VARCHAR(11)
+-- E.164 digits, e.g. 201128673348 for +20 112 867 3348
+phone BIGINT
 );
@@ -1,12 +1,16 @@
 package main.java;
 
 import main.java.service.StudentService;
+import main.java.service.impl.InMemoryStudentService;
 import main.java.service.impl.StudentServiceImpl;
 
 public class Home {
     public static void main(String[] args) {
 
-        StudentService studentService = new StudentServiceImpl();
+        // -Dstudent.engine=memory runs without MySQL
+        StudentService studentService = "memory".equals(System.getProperty("student.engine"))
+                ? new InMemoryStudentService()
+                : new StudentServiceImpl();
 //        Student student = new Student("Mahmoud",3.1,"01128673348");
 //        Student student =  Student.builder()
 //                .name("Eng/Ramy")
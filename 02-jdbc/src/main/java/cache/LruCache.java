@@ -0,0 +1,133 @@
+package main.java.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded least-recently-used cache whose entries also expire a fixed time after they were stored.
+ * <p>
+ * Loads that race with an invalidation are handled with an epoch: read {@link #epoch()} before loading
+ * from the source, and {@link #put(Object, Object, long)} drops the value if any key was invalidated
+ * in between, so a value read before a write can never land in the cache after it.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final CacheStats stats = new CacheStats();
+    // short critical sections only, a lock rather than synchronized so virtual threads are never pinned
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long epoch;
+
+    public LruCache(int maxSize, long ttl, TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1, was " + maxSize);
+        }
+        if (ttl <= 0) {
+            throw new IllegalArgumentException("ttl must be positive, was " + ttl);
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    // the cached value, or null when it is missing or expired
+    public V get(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                stats.recordMiss();
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos >= 0) {
+                entries.remove(key);
+                stats.recordExpiration();
+                stats.recordMiss();
+                return null;
+            }
+            stats.recordHit();
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long epoch() {
+        lock.lock();
+        try {
+            return epoch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // stores the value unless an invalidation happened since the given epoch was read
+    public boolean put(K key, V value, long loadEpoch) {
+        lock.lock();
+        try {
+            if (loadEpoch != epoch) {
+                return false;
+            }
+            entries.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+            if (entries.size() > maxSize) {
+                Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+                eldest.next();
+                eldest.remove();
+                stats.recordEviction();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            epoch++;
+            if (entries.remove(key) != null) {
+                stats.recordInvalidation();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            epoch++;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAtNanos;
+
+        Entry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package main.java.connection;
 
+import main.java.connection.pool.ConnectionPool;
+import main.java.connection.pool.PoolConfig;
+import main.java.metrics.InstrumentedConnection;
+import main.java.metrics.JdbcListener;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 public class DBConnection {
     private static final String HOST = "127.0.0.1";
@@ -10,6 +19,9 @@ public class DBConnection {
     private static final String DB_NAME = "studentDatabase";
     private static final String USERNAME = "root";
     private static final String PASSWORD = "";
+    // server-side prepared statements, so the per-connection statement cache also skips the parse on MySQL,
+    // batched inserts rewritten into multi-row INSERTs, and a server-side cursor for statements with a fetch size
+    private static final String URL_OPTIONS = "?useServerPrepStmts=true&rewriteBatchedStatements=true&useCursorFetch=true";
 
     private DBConnection(){}
 
@@ -23,15 +35,185 @@ public class DBConnection {
     private static DBConnection dbConnection=null;
 
 
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
+    // null while every query goes to the primary pool
+    private static volatile ReplicaSet replicaSet;
+    // read-your-writes session of the caller on this thread, created on first use
+    private static final ThreadLocal<ReadYourWritesSession> SESSION = new ThreadLocal<>();
+    // null while instrumentation is off, which then costs one volatile read per getConnection()
+    private static volatile JdbcListener listener;
+
+    // hands out a pooled connection to the primary, closing it returns it to the pool;
+    // inside a StudentUnitOfWork it is the unit of work's connection instead; fails with an SQLTimeoutException
+    // when the pool has no connection to spare within its borrow timeout
+    public static Connection getConnection() throws SQLException {
+        Connection unitOfWorkConnection = StudentUnitOfWork.currentConnection();
+        if (unitOfWorkConnection != null) {
+            return unitOfWorkConnection;
+        }
+        Connection connection = borrow(getPool());
+        if (replicaSet == null) {
+            return connection;
+        }
+        return new ReadYourWritesConnection(connection, currentSession());
+    }
 
-    public static Connection getConnection() {
+    // connection for queries a read replica may answer; it comes from the primary when no replicas are configured,
+    // inside a unit of work, and for the read-your-writes window after the caller last returned a primary connection
+    public static Connection getReadConnection() throws SQLException {
+        Connection unitOfWorkConnection = StudentUnitOfWork.currentConnection();
+        if (unitOfWorkConnection != null) {
+            return unitOfWorkConnection;
+        }
+        ReplicaSet current = replicaSet;
+        if (current == null || currentSession().readsOwnWrites(current.readYourWritesNanos)) {
+            return borrow(getPool());
+        }
         try {
-//            connection = DriverManager.getConnection(String.format("jdbc:mysql://%s:%d/%s", HOST, PORT, DB_NAME), USERNAME, PASSWORD);
-            connection = DriverManager.getConnection("jdbc:mysql://"+HOST+":"+PORT+"/"+DB_NAME,USERNAME,PASSWORD);
+            return borrow(current.routingPolicy.choose(current.pools));
+        } catch (SQLException replicaFailure) {
+            // an unreachable replica should not fail reads the primary can still answer
+            try {
+                return borrow(getPool());
+            } catch (SQLException primaryFailure) {
+                primaryFailure.addSuppressed(replicaFailure);
+                throw primaryFailure;
+            }
+        }
+    }
+
+    // session the caller on this thread reads and writes under
+    public static ReadYourWritesSession currentSession() {
+        ReadYourWritesSession session = SESSION.get();
+        if (session == null) {
+            session = new ReadYourWritesSession();
+            SESSION.set(session);
+        }
+        return session;
+    }
+
+    // runs the call with connections counted against the given caller's session instead of this thread's own
+    public static <T> T callInSession(ReadYourWritesSession session, Supplier<T> call) {
+        ReadYourWritesSession previous = SESSION.get();
+        SESSION.set(session);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                SESSION.remove();
+            } else {
+                SESSION.set(previous);
+            }
+        }
+    }
+
+    private static Connection borrow(ConnectionPool connectionPool) throws SQLException {
+        JdbcListener currentListener = listener;
+        if (currentListener == null) {
+            return connectionPool.getConnection();
+        }
+        long start = System.nanoTime();
+        try {
+            Connection connection = connectionPool.getConnection();
+            currentListener.connectionAcquired(System.nanoTime() - start);
+            return new InstrumentedConnection(connection, currentListener);
         } catch (SQLException se) {
-            se.printStackTrace();
+            currentListener.connectionFailed(se);
+            throw se;
+        }
+    }
+
+    // instruments every connection handed out from now on, null switches instrumentation off again
+    public static void setListener(JdbcListener jdbcListener) {
+        listener = jdbcListener;
+    }
+
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                if (pool == null) {
+                    pool = new ConnectionPool(defaultConfig());
+                }
+                current = pool;
+            }
+        }
+        return current;
+    }
+
+    // points getConnection() at another database, the previous pool is closed
+    public static synchronized void configure(PoolConfig config) {
+        ConnectionPool previous = pool;
+        pool = new ConnectionPool(config);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    // sends reads to one pool per replica config, chosen by the routing policy; reads of a caller that returned a
+    // primary connection within the last readYourWritesMillis stay on the primary. An empty list routes everything to the primary.
+    public static synchronized void configureReplicas(List<PoolConfig> replicaConfigs, RoutingPolicy routingPolicy, long readYourWritesMillis) {
+        ReplicaSet previous = replicaSet;
+        if (replicaConfigs.isEmpty()) {
+            replicaSet = null;
+        } else {
+            List<ConnectionPool> pools = new ArrayList<>(replicaConfigs.size());
+            for (PoolConfig replicaConfig : replicaConfigs) {
+                pools.add(new ConnectionPool(replicaConfig));
+            }
+            replicaSet = new ReplicaSet(Collections.unmodifiableList(pools), routingPolicy,
+                    TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis));
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public static List<ConnectionPool> getReplicaPools() {
+        ReplicaSet current = replicaSet;
+        return current == null ? Collections.<ConnectionPool>emptyList() : current.pools;
+    }
+
+    public static synchronized void shutdown() {
+        if (replicaSet != null) {
+            replicaSet.close();
+            replicaSet = null;
+        }
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
+
+    private static PoolConfig defaultConfig() {
+        return PoolConfig.builder()
+                .url("jdbc:mysql://"+HOST+":"+PORT+"/"+DB_NAME+URL_OPTIONS)
+                .username(USERNAME)
+                .password(PASSWORD)
+                .minIdle(2)
+                .maxSize(10)
+                .borrowTimeoutMillis(30_000)
+                .idleTimeoutMillis(600_000)
+                .leakDetectionThresholdMillis(60_000)
+                .statementCacheSize(32)
+                .build();
+    }
+
+    private static final class ReplicaSet {
+        final List<ConnectionPool> pools;
+        final RoutingPolicy routingPolicy;
+        final long readYourWritesNanos;
+
+        ReplicaSet(List<ConnectionPool> pools, RoutingPolicy routingPolicy, long readYourWritesNanos) {
+            this.pools = pools;
+            this.routingPolicy = routingPolicy;
+            this.readYourWritesNanos = readYourWritesNanos;
+        }
+
+        void close() {
+            for (ConnectionPool replica : pools) {
+                replica.close();
+            }
         }
-        return connection;
     }
 }
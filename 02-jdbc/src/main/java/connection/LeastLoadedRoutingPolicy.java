@@ -0,0 +1,28 @@
+package main.java.connection;
+
+import main.java.connection.pool.ConnectionPool;
+
+import java.util.List;
+
+// sends reads to the replica with the fewest connections in use and threads waiting, the first one on a tie
+public class LeastLoadedRoutingPolicy implements RoutingPolicy {
+
+    @Override
+    public ConnectionPool choose(List<ConnectionPool> replicas) {
+        ConnectionPool chosen = replicas.get(0);
+        int lowestLoad = load(chosen);
+        for (int i = 1; i < replicas.size() && lowestLoad > 0; i++) {
+            ConnectionPool replica = replicas.get(i);
+            int load = load(replica);
+            if (load < lowestLoad) {
+                chosen = replica;
+                lowestLoad = load;
+            }
+        }
+        return chosen;
+    }
+
+    private static int load(ConnectionPool pool) {
+        return pool.getActiveConnections() + pool.getPendingThreads();
+    }
+}
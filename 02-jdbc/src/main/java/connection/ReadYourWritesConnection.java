@@ -0,0 +1,30 @@
+package main.java.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// primary connection handed out while replicas are configured; its writes have committed once it is closed,
+// which is when the session's read-your-writes window starts
+final class ReadYourWritesConnection extends DelegatingConnection {
+
+    private final ReadYourWritesSession session;
+    private boolean closed;
+
+    ReadYourWritesConnection(Connection delegate, ReadYourWritesSession session) {
+        super(delegate);
+        this.session = session;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            session.writeCommitted();
+        }
+    }
+}
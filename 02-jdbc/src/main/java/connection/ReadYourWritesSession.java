@@ -0,0 +1,23 @@
+package main.java.connection;
+
+/**
+ * Read-your-writes window of one caller. While replicas are configured, reads stay on the primary for the window
+ * after the caller's last primary connection was returned, by which time its writes have committed.
+ * <p>
+ * Every thread has a session of its own. {@link DBConnection#callInSession} runs work for a caller on another
+ * thread under the caller's session, which is how {@code AsyncStudentService} calls see the caller's writes.
+ */
+public final class ReadYourWritesSession {
+
+    // when a primary connection of this session was last returned, 0 if it never was
+    private volatile long lastWriteNanos;
+
+    void writeCommitted() {
+        lastWriteNanos = System.nanoTime();
+    }
+
+    boolean readsOwnWrites(long windowNanos) {
+        long last = lastWriteNanos;
+        return last != 0 && System.nanoTime() - last < windowNanos;
+    }
+}
@@ -0,0 +1,18 @@
+package main.java.connection;
+
+import main.java.connection.pool.ConnectionPool;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// sends reads to each replica in turn
+public class RoundRobinRoutingPolicy implements RoutingPolicy {
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public ConnectionPool choose(List<ConnectionPool> replicas) {
+        // masking keeps the index positive after the counter wraps around
+        return replicas.get((next.getAndIncrement() & Integer.MAX_VALUE) % replicas.size());
+    }
+}
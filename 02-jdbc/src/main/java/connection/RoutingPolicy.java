@@ -0,0 +1,11 @@
+package main.java.connection;
+
+import main.java.connection.pool.ConnectionPool;
+
+import java.util.List;
+
+// picks the replica pool a read is sent to
+public interface RoutingPolicy {
+
+    ConnectionPool choose(List<ConnectionPool> replicas);
+}
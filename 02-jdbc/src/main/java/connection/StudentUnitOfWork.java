@@ -0,0 +1,123 @@
+package main.java.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a sequence of {@code StudentService} calls on one connection and in one transaction.
+ * <p>
+ * While a unit of work is open, {@link DBConnection#getConnection()} on the same thread returns its connection,
+ * with autocommit off and with close and commit calls from the services ignored, so the work is committed once
+ * by {@link #commit()}. Closing a unit of work that was not committed rolls it back.
+ * <pre>
+ * try (StudentUnitOfWork unitOfWork = StudentUnitOfWork.begin()) {
+ *     studentService.updateStudent(student);
+ *     studentService.getStuById(student.getId());
+ *     unitOfWork.commit();
+ * }
+ * </pre>
+ */
+public class StudentUnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<StudentUnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Connection connection;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private boolean rollbackOnly;
+    private boolean completed;
+
+    private StudentUnitOfWork(Connection connection) {
+        this.connection = connection;
+    }
+
+    public static StudentUnitOfWork begin() throws SQLException {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A unit of work is already active on this thread");
+        }
+        Connection connection = DBConnection.getConnection();
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        StudentUnitOfWork unitOfWork = new StudentUnitOfWork(connection);
+        CURRENT.set(unitOfWork);
+        return unitOfWork;
+    }
+
+    // connection DBConnection hands out on this thread, or null outside a unit of work
+    static Connection currentConnection() {
+        StudentUnitOfWork unitOfWork = CURRENT.get();
+        return unitOfWork == null ? null : new UnitOfWorkConnection(unitOfWork.connection, unitOfWork);
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    // runs the action once the unit of work on this thread has committed, or right away outside a unit of work;
+    // dropped when the unit of work rolls back
+    public static void afterCommit(Runnable action) {
+        StudentUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            action.run();
+        } else {
+            unitOfWork.afterCommit.add(action);
+        }
+    }
+
+    public void commit() throws SQLException {
+        checkNotCompleted();
+        if (rollbackOnly) {
+            rollback();
+            throw new SQLException("Unit of work was rolled back because one of its statements failed");
+        }
+        connection.commit();
+        completed = true;
+        for (Runnable action : afterCommit) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    public void rollback() throws SQLException {
+        checkNotCompleted();
+        completed = true;
+        connection.rollback();
+    }
+
+    void markRollbackOnly() {
+        rollbackOnly = true;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!completed) {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            CURRENT.remove();
+            try {
+                connection.setAutoCommit(true);
+                connection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void checkNotCompleted() {
+        if (completed) {
+            throw new IllegalStateException("Unit of work has already been committed or rolled back");
+        }
+    }
+}
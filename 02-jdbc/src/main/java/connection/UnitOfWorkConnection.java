@@ -0,0 +1,37 @@
+package main.java.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// what services get from DBConnection while a unit of work is active: the transaction is the unit of work's to finish
+final class UnitOfWorkConnection extends DelegatingConnection {
+
+    private final StudentUnitOfWork unitOfWork;
+
+    UnitOfWorkConnection(Connection delegate, StudentUnitOfWork unitOfWork) {
+        super(delegate);
+        this.unitOfWork = unitOfWork;
+    }
+
+    @Override
+    public void setAutoCommit(boolean autoCommit) {
+        // stays off until the unit of work ends
+    }
+
+    @Override
+    public void commit() {
+        // deferred to StudentUnitOfWork.commit()
+    }
+
+    // a service that rolls back gave up on its part, so the whole unit of work can no longer commit
+    @Override
+    public void rollback() throws SQLException {
+        unitOfWork.markRollbackOnly();
+        getDelegate().rollback();
+    }
+
+    @Override
+    public void close() {
+        // the connection is returned when the unit of work is closed
+    }
+}
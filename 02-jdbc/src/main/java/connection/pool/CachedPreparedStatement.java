@@ -0,0 +1,130 @@
+package main.java.connection.pool;
+
+import main.java.connection.DelegatingPreparedStatement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handle on a statement checked out of a {@link StatementCache}. Closing it closes the open result sets,
+ * clears the parameters and puts the statement back in the cache instead of releasing it on the server.
+ */
+public class CachedPreparedStatement extends DelegatingPreparedStatement {
+
+    private final PooledConnection connection;
+    private final StatementCache cache;
+    private final StatementCache.Key key;
+    // every result set handed out, whether by executeQuery, getResultSet after execute, or getGeneratedKeys
+    private final List<ResultSet> openResults = new ArrayList<>();
+    private boolean settingsChanged;
+    private boolean closed;
+
+    CachedPreparedStatement(PooledConnection connection, StatementCache cache, StatementCache.Key key, PreparedStatement delegate) {
+        super(delegate);
+        this.connection = connection;
+        this.cache = cache;
+        this.key = key;
+    }
+
+    @Override
+    protected PreparedStatement getDelegate() throws SQLException {
+        if (closed) {
+            throw new SQLException("Statement is closed");
+        }
+        return super.getDelegate();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return track(getDelegate().executeQuery());
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return track(getDelegate().executeQuery(sql));
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return track(getDelegate().getResultSet());
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return track(getDelegate().getGeneratedKeys());
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        settingsChanged = true;
+        getDelegate().setFetchSize(rows);
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        settingsChanged = true;
+        getDelegate().setMaxRows(max);
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        settingsChanged = true;
+        getDelegate().setQueryTimeout(seconds);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        getDelegate();
+        return connection;
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || super.getDelegate().isClosed();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        connection.statementClosed(this);
+        PreparedStatement statement = super.getDelegate();
+        try {
+            closeResults();
+            statement.clearParameters();
+            statement.clearBatch();
+            if (settingsChanged) {
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+                statement.setQueryTimeout(0);
+            }
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        cache.checkin(key, statement);
+    }
+
+    private ResultSet track(ResultSet resultSet) {
+        if (resultSet != null) {
+            openResults.add(resultSet);
+        }
+        return resultSet;
+    }
+
+    private void closeResults() throws SQLException {
+        try {
+            for (ResultSet resultSet : openResults) {
+                resultSet.close();
+            }
+        } finally {
+            openResults.clear();
+        }
+    }
+}
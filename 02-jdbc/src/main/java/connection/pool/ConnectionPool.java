@@ -0,0 +1,294 @@
+package main.java.connection.pool;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded JDBC connection pool.
+ * <p>
+ * A fair semaphore with {@code maxSize} permits bounds the number of borrowed connections, so callers
+ * queue in arrival order and give up after {@code borrowTimeoutMillis}. Idle connections sit in a deque
+ * and are reused most-recently-returned first, which keeps a warm core and lets the rest age out.
+ * A background housekeeper evicts connections idle past {@code idleTimeoutMillis}, tops the pool back up
+ * to {@code minIdle} and reports connections held longer than {@code leakDetectionThresholdMillis}.
+ * Each physical connection keeps its own LRU cache of {@code statementCacheSize} prepared statements.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PoolEntry> idle = new LinkedBlockingDeque<>();
+    private final Set<PoolEntry> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final StatementCacheStats statementCacheStats = new StatementCacheStats();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, config.getPoolName() + "-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool " + getPoolName() + " is closed");
+        }
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + "ms waiting for a connection from pool " + getPoolName()
+                        + " (active=" + getActiveConnections() + ", max=" + config.getMaxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from pool " + getPoolName(), e);
+        }
+        try {
+            return lend(takeEntry(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getBorrowTimeoutMillis())));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(PoolEntry entry) {
+        borrowed.remove(entry);
+        if (entry.leakReported) {
+            System.err.println("Previously reported leaked connection was returned to pool " + getPoolName());
+        }
+        entry.borrowSite = null;
+        try {
+            if (closed || totalConnections.get() > config.getMaxSize() || !reset(entry)) {
+                destroy(entry);
+            } else {
+                entry.lastReturnedNanos = System.nanoTime();
+                idle.offerFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    void abort(PoolEntry entry, Executor executor) throws SQLException {
+        borrowed.remove(entry);
+        totalConnections.decrementAndGet();
+        permits.release();
+        entry.connection.abort(executor);
+    }
+
+    public String getPoolName() {
+        return config.getPoolName();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    public int getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    public int getPendingThreads() {
+        return permits.getQueueLength();
+    }
+
+    public StatementCacheStats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PoolEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    private PooledConnection lend(PoolEntry entry) {
+        entry.borrowedAtNanos = System.nanoTime();
+        entry.leakReported = false;
+        if (config.getLeakDetectionThresholdMillis() > 0) {
+            entry.borrowSite = new Throwable("Connection borrowed from pool " + getPoolName() + " here");
+        }
+        borrowed.add(entry);
+        return new PooledConnection(this, entry);
+    }
+
+    // called holding a permit, so fewer than maxSize connections are borrowed; when every slot is still taken
+    // the missing connection is being opened by the housekeeper or on its way back, and shows up in the deque
+    private PoolEntry takeEntry(long deadlineNanos) throws SQLException {
+        while (true) {
+            PoolEntry entry;
+            while ((entry = idle.pollFirst()) != null) {
+                if (isUsable(entry)) {
+                    return entry;
+                }
+                destroy(entry);
+            }
+            entry = tryCreateEntry();
+            if (entry != null) {
+                return entry;
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + "ms waiting for a connection from pool " + getPoolName()
+                        + " (total=" + getTotalConnections() + ", max=" + config.getMaxSize() + ")");
+            }
+            try {
+                // bounded so a slot freed by destroy(), which never reaches the deque, is picked up as well
+                entry = idle.pollFirst(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(10)), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a connection from pool " + getPoolName(), e);
+            }
+            if (entry != null) {
+                idle.offerFirst(entry);
+            }
+        }
+    }
+
+    // null when the pool already holds maxSize connections. The slot is reserved before the connection is
+    // opened, so borrowers and the housekeeper opening at the same time never go past maxSize together
+    private PoolEntry tryCreateEntry() throws SQLException {
+        int total;
+        do {
+            total = totalConnections.get();
+            if (total >= config.getMaxSize()) {
+                return null;
+            }
+        } while (!totalConnections.compareAndSet(total, total + 1));
+        Connection connection;
+        try {
+            connection = config.getUsername() == null
+                    ? DriverManager.getConnection(config.getUrl())
+                    : DriverManager.getConnection(config.getUrl(), config.getUsername(), config.getPassword());
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+        int cacheSize = config.getStatementCacheSize();
+        return new PoolEntry(connection, cacheSize > 0 ? new StatementCache(cacheSize, statementCacheStats) : null);
+    }
+
+    // validation on borrow, skipped for connections that were in use a moment ago
+    private boolean isUsable(PoolEntry entry) {
+        try {
+            if (entry.connection.isClosed()) {
+                return false;
+            }
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - entry.lastReturnedNanos);
+            return idleMillis < config.getValidationBypassMillis()
+                    || entry.connection.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // undo whatever the borrower left behind so the next one gets a clean autocommit connection
+    private boolean reset(PoolEntry entry) {
+        try {
+            if (entry.connection.isClosed()) {
+                return false;
+            }
+            if (!entry.connection.getAutoCommit()) {
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+            entry.connection.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void destroy(PoolEntry entry) {
+        totalConnections.decrementAndGet();
+        entry.closePhysical();
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            fillToMinIdle();
+            detectLeaks();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        // returns go to the head, so the least recently used connections sit at the tail and are evicted first
+        Iterator<PoolEntry> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext() && totalConnections.get() > config.getMinIdle()) {
+            PoolEntry entry = oldestFirst.next();
+            if (now - entry.lastReturnedNanos > idleTimeoutNanos && idle.remove(entry)) {
+                destroy(entry);
+            }
+        }
+    }
+
+    private void fillToMinIdle() {
+        while (!closed && idle.size() < config.getMinIdle()) {
+            try {
+                PoolEntry entry = tryCreateEntry();
+                if (entry == null) {
+                    return;
+                }
+                idle.offerLast(entry);
+            } catch (SQLException e) {
+                System.err.println("Pool " + getPoolName() + " could not open an idle connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void detectLeaks() {
+        long threshold = config.getLeakDetectionThresholdMillis();
+        if (threshold == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (PoolEntry entry : borrowed) {
+            Throwable borrowSite = entry.borrowSite;
+            if (!entry.leakReported && borrowSite != null
+                    && TimeUnit.NANOSECONDS.toMillis(now - entry.borrowedAtNanos) > threshold) {
+                entry.leakReported = true;
+                System.err.println("Connection from pool " + getPoolName() + " held for more than "
+                        + threshold + "ms, possible leak");
+                borrowSite.printStackTrace();
+            }
+        }
+    }
+}
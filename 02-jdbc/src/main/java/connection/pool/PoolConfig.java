@@ -0,0 +1,105 @@
+package main.java.connection.pool;
+
+public class PoolConfig {
+
+    private final String poolName;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int minIdle;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long validationBypassMillis;
+    private final int validationTimeoutSeconds;
+    private final long leakDetectionThresholdMillis;
+    private final long housekeepingIntervalMillis;
+    private final int statementCacheSize;
+
+    PoolConfig(PoolConfigBuilder builder) {
+        this.poolName = builder.poolName;
+        this.url = builder.url;
+        this.username = builder.username;
+        this.password = builder.password;
+        this.minIdle = builder.minIdle;
+        this.maxSize = builder.maxSize;
+        this.borrowTimeoutMillis = builder.borrowTimeoutMillis;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.validationBypassMillis = builder.validationBypassMillis;
+        this.validationTimeoutSeconds = builder.validationTimeoutSeconds;
+        this.leakDetectionThresholdMillis = builder.leakDetectionThresholdMillis;
+        this.housekeepingIntervalMillis = builder.housekeepingIntervalMillis;
+        this.statementCacheSize = builder.statementCacheSize;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long getValidationBypassMillis() {
+        return validationBypassMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public long getLeakDetectionThresholdMillis() {
+        return leakDetectionThresholdMillis;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolConfig{" +
+                "poolName='" + poolName + '\'' +
+                ", url='" + url + '\'' +
+                ", minIdle=" + minIdle +
+                ", maxSize=" + maxSize +
+                ", borrowTimeoutMillis=" + borrowTimeoutMillis +
+                ", idleTimeoutMillis=" + idleTimeoutMillis +
+                ", leakDetectionThresholdMillis=" + leakDetectionThresholdMillis +
+                ", statementCacheSize=" + statementCacheSize +
+                '}';
+    }
+
+    //builder Method
+    public static PoolConfigBuilder builder() {
+        return new PoolConfigBuilder();
+    }
+}
@@ -0,0 +1,109 @@
+package main.java.connection.pool;
+
+public class PoolConfigBuilder {
+
+    String poolName = "student-pool";
+    String url;
+    String username;
+    String password;
+    int minIdle = 2;
+    int maxSize = 10;
+    long borrowTimeoutMillis = 30_000;
+    long idleTimeoutMillis = 600_000;
+    // connections returned to the pool more recently than this are handed out without isValid()
+    long validationBypassMillis = 500;
+    int validationTimeoutSeconds = 5;
+    // 0 disables leak detection
+    long leakDetectionThresholdMillis = 0;
+    long housekeepingIntervalMillis = 30_000;
+    // prepared statements cached per connection, 0 disables the cache
+    int statementCacheSize = 32;
+
+    public PoolConfigBuilder poolName(String poolName) {
+        this.poolName = poolName;
+        return this;
+    }
+
+    public PoolConfigBuilder url(String url) {
+        this.url = url;
+        return this;
+    }
+
+    public PoolConfigBuilder username(String username) {
+        this.username = username;
+        return this;
+    }
+
+    public PoolConfigBuilder password(String password) {
+        this.password = password;
+        return this;
+    }
+
+    public PoolConfigBuilder minIdle(int minIdle) {
+        this.minIdle = minIdle;
+        return this;
+    }
+
+    public PoolConfigBuilder maxSize(int maxSize) {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public PoolConfigBuilder borrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        return this;
+    }
+
+    public PoolConfigBuilder idleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        return this;
+    }
+
+    public PoolConfigBuilder validationBypassMillis(long validationBypassMillis) {
+        this.validationBypassMillis = validationBypassMillis;
+        return this;
+    }
+
+    public PoolConfigBuilder validationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        return this;
+    }
+
+    public PoolConfigBuilder leakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+        this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+        return this;
+    }
+
+    public PoolConfigBuilder housekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+        return this;
+    }
+
+    public PoolConfigBuilder statementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+        return this;
+    }
+
+    //builder method
+    public PoolConfig build() {
+        if (url == null) {
+            throw new IllegalArgumentException("url is required");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1, was " + maxSize);
+        }
+        if (minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("minIdle must be between 0 and maxSize, was " + minIdle);
+        }
+        if (borrowTimeoutMillis < 0 || idleTimeoutMillis < 0 || leakDetectionThresholdMillis < 0) {
+            throw new IllegalArgumentException("timeouts must not be negative");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("statementCacheSize must not be negative, was " + statementCacheSize);
+        }
+        if (housekeepingIntervalMillis <= 0) {
+            throw new IllegalArgumentException("housekeepingIntervalMillis must be positive, was " + housekeepingIntervalMillis);
+        }
+        return new PoolConfig(this);
+    }
+}
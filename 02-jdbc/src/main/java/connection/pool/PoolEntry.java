@@ -0,0 +1,36 @@
+package main.java.connection.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// one physical connection plus the bookkeeping the pool keeps about it
+final class PoolEntry {
+
+    final Connection connection;
+    // null when the pool runs without statement caching
+    final StatementCache statementCache;
+
+    // nanoTime of the last return to the pool, drives idle eviction and validation bypass
+    volatile long lastReturnedNanos;
+    volatile long borrowedAtNanos;
+    // where the current borrower got the connection, only captured when leak detection is on
+    volatile Throwable borrowSite;
+    volatile boolean leakReported;
+
+    PoolEntry(Connection connection, StatementCache statementCache) {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        this.lastReturnedNanos = System.nanoTime();
+    }
+
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.closeAll();
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package main.java.connection.pool;
+
+import main.java.connection.DelegatingConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Handle given to a single borrower. Closing it hands the physical connection back to the pool,
+ * and any call made through the handle after that fails instead of touching the next borrower's connection.
+ * {@code prepareStatement(sql)} is served from the connection's statement cache when one is configured.
+ */
+public class PooledConnection extends DelegatingConnection {
+
+    private final ConnectionPool pool;
+    private final PoolEntry entry;
+    private List<CachedPreparedStatement> openStatements;
+    private boolean closed;
+
+    PooledConnection(ConnectionPool pool, PoolEntry entry) {
+        super(entry.connection);
+        this.pool = pool;
+        this.entry = entry;
+    }
+
+    @Override
+    protected Connection getDelegate() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection has already been returned to pool " + pool.getPoolName());
+        }
+        return super.getDelegate();
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return prepareCached(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return prepareCached(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed || super.getDelegate().isClosed();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        try {
+            closeOpenStatements();
+        } finally {
+            closed = true;
+            pool.release(entry);
+        }
+    }
+
+    @Override
+    public void abort(Executor executor) throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pool.abort(entry, executor);
+    }
+
+    void statementClosed(CachedPreparedStatement statement) {
+        openStatements.remove(statement);
+    }
+
+    private PreparedStatement prepareCached(String sql, int autoGeneratedKeys) throws SQLException {
+        Connection connection = getDelegate();
+        StatementCache cache = entry.statementCache;
+        if (cache == null) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        StatementCache.Key key = new StatementCache.Key(sql, autoGeneratedKeys);
+        CachedPreparedStatement statement = new CachedPreparedStatement(this, cache, key, cache.checkout(connection, key));
+        if (openStatements == null) {
+            openStatements = new ArrayList<>(2);
+        }
+        openStatements.add(statement);
+        return statement;
+    }
+
+    // JDBC closes a connection's statements with it, here that means returning them to the cache
+    private void closeOpenStatements() throws SQLException {
+        if (openStatements == null) {
+            return;
+        }
+        SQLException failure = null;
+        for (CachedPreparedStatement statement : openStatements.toArray(new CachedPreparedStatement[0])) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package main.java.connection.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ * <p>
+ * A statement is removed from the cache while it is checked out and put back when its handle is
+ * closed, so two open handles never share one statement. Only the thread holding the connection
+ * touches the cache, which is why it needs no locking.
+ */
+final class StatementCache {
+
+    private final int maxSize;
+    private final StatementCacheStats stats;
+    // insertion order doubles as recency order because statements are re-inserted on every check-in
+    private final LinkedHashMap<Key, PreparedStatement> statements = new LinkedHashMap<>();
+
+    StatementCache(int maxSize, StatementCacheStats stats) {
+        this.maxSize = maxSize;
+        this.stats = stats;
+    }
+
+    PreparedStatement checkout(Connection connection, Key key) throws SQLException {
+        PreparedStatement statement = statements.remove(key);
+        if (statement != null) {
+            stats.recordHit();
+            return statement;
+        }
+        stats.recordMiss();
+        return connection.prepareStatement(key.sql, key.autoGeneratedKeys);
+    }
+
+    void checkin(Key key, PreparedStatement statement) {
+        PreparedStatement previous = statements.put(key, statement);
+        if (previous != null) {
+            // the same SQL was checked out twice at once, keep only the latest copy
+            close(previous);
+        }
+        if (statements.size() > maxSize) {
+            Iterator<PreparedStatement> eldest = statements.values().iterator();
+            close(eldest.next());
+            eldest.remove();
+            stats.recordEviction();
+        }
+    }
+
+    void closeAll() {
+        for (PreparedStatement statement : statements.values()) {
+            close(statement);
+        }
+        statements.clear();
+    }
+
+    int size() {
+        return statements.size();
+    }
+
+    private static void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static final class Key {
+        final String sql;
+        final int autoGeneratedKeys;
+
+        Key(String sql, int autoGeneratedKeys) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * sql.hashCode() + autoGeneratedKeys;
+        }
+    }
+}
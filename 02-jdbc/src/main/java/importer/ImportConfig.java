@@ -0,0 +1,55 @@
+package main.java.importer;
+
+public class ImportConfig {
+
+    private final boolean memoryMapped;
+    private final boolean skipHeader;
+    private final int parserThreads;
+    private final int linesPerChunk;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long progressIntervalMillis;
+
+    ImportConfig(ImportConfigBuilder builder) {
+        this.memoryMapped = builder.memoryMapped;
+        this.skipHeader = builder.skipHeader;
+        this.parserThreads = builder.parserThreads;
+        this.linesPerChunk = builder.linesPerChunk;
+        this.queueCapacity = builder.queueCapacity;
+        this.batchSize = builder.batchSize;
+        this.progressIntervalMillis = builder.progressIntervalMillis;
+    }
+
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
+    public boolean isSkipHeader() {
+        return skipHeader;
+    }
+
+    public int getParserThreads() {
+        return parserThreads;
+    }
+
+    public int getLinesPerChunk() {
+        return linesPerChunk;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getProgressIntervalMillis() {
+        return progressIntervalMillis;
+    }
+
+    //builder Method
+    public static ImportConfigBuilder builder() {
+        return new ImportConfigBuilder();
+    }
+}
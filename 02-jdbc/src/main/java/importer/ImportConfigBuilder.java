@@ -0,0 +1,61 @@
+package main.java.importer;
+
+public class ImportConfigBuilder {
+
+    boolean memoryMapped = true;
+    boolean skipHeader = true;
+    int parserThreads = 1;
+    // lines travel between stages in chunks, so the queues are not touched once per row
+    int linesPerChunk = 1_000;
+    // chunks each queue holds before the stage in front of it blocks
+    int queueCapacity = 16;
+    int batchSize = 1_000;
+    // 0 disables progress reports
+    long progressIntervalMillis = 5_000;
+
+    public ImportConfigBuilder memoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+        return this;
+    }
+
+    public ImportConfigBuilder skipHeader(boolean skipHeader) {
+        this.skipHeader = skipHeader;
+        return this;
+    }
+
+    public ImportConfigBuilder parserThreads(int parserThreads) {
+        this.parserThreads = parserThreads;
+        return this;
+    }
+
+    public ImportConfigBuilder linesPerChunk(int linesPerChunk) {
+        this.linesPerChunk = linesPerChunk;
+        return this;
+    }
+
+    public ImportConfigBuilder queueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public ImportConfigBuilder batchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    public ImportConfigBuilder progressIntervalMillis(long progressIntervalMillis) {
+        this.progressIntervalMillis = progressIntervalMillis;
+        return this;
+    }
+
+    //builder method
+    public ImportConfig build() {
+        if (parserThreads < 1 || linesPerChunk < 1 || queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("parserThreads, linesPerChunk, queueCapacity and batchSize must be at least 1");
+        }
+        if (progressIntervalMillis < 0) {
+            throw new IllegalArgumentException("progressIntervalMillis must not be negative, was " + progressIntervalMillis);
+        }
+        return new ImportConfig(this);
+    }
+}
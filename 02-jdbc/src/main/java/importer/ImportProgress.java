@@ -0,0 +1,68 @@
+package main.java.importer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// live counters of one import, safe to read from any thread while it runs
+public class ImportProgress {
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder linesRead = new LongAdder();
+    private final LongAdder parsed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    void addLinesRead(long lines) {
+        linesRead.add(lines);
+    }
+
+    void addParsed(long records) {
+        parsed.add(records);
+    }
+
+    void addRejected(long records) {
+        rejected.add(records);
+    }
+
+    void addWritten(long records) {
+        written.add(records);
+    }
+
+    public long getLinesRead() {
+        return linesRead.sum();
+    }
+
+    public long getParsed() {
+        return parsed.sum();
+    }
+
+    // lines that failed parsing or validation
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public double getRowsPerSecond() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getWritten() * 1000.0 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportProgress{" +
+                "linesRead=" + getLinesRead() +
+                ", parsed=" + getParsed() +
+                ", rejected=" + getRejected() +
+                ", written=" + getWritten() +
+                ", elapsedMillis=" + getElapsedMillis() +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                '}';
+    }
+}
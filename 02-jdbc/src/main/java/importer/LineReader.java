@@ -0,0 +1,82 @@
+package main.java.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// splits a file into UTF-8 lines straight from a FileChannel, either mapped region by region or through one reused direct buffer
+final class LineReader {
+
+    private static final long MAP_REGION_SIZE = 64L << 20;
+    private static final int BUFFER_SIZE = 64 << 10;
+
+    private final long mapRegionSize;
+    private final int bufferSize;
+
+    interface LineConsumer {
+        void accept(String line) throws InterruptedException;
+    }
+
+    private byte[] line = new byte[256];
+    private int length;
+
+    LineReader() {
+        this(MAP_REGION_SIZE, BUFFER_SIZE);
+    }
+
+    // smaller sizes let tests cross region and buffer boundaries with small files
+    LineReader(long mapRegionSize, int bufferSize) {
+        this.mapRegionSize = mapRegionSize;
+        this.bufferSize = bufferSize;
+    }
+
+    void read(Path file, boolean memoryMapped, LineConsumer consumer) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (memoryMapped) {
+                long size = channel.size();
+                for (long position = 0; position < size; position += mapRegionSize) {
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(mapRegionSize, size - position));
+                    split(region, consumer);
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    split(buffer, consumer);
+                    buffer.clear();
+                }
+            }
+            if (length > 0) {
+                emit(consumer);
+            }
+        }
+    }
+
+    // a line may continue into the next region or buffer, the partial bytes stay in line until its '\n' shows up
+    private void split(ByteBuffer buffer, LineConsumer consumer) throws InterruptedException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (b == '\n') {
+                emit(consumer);
+            } else {
+                if (length == line.length) {
+                    byte[] grown = new byte[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, length);
+                    line = grown;
+                }
+                line[length++] = b;
+            }
+        }
+    }
+
+    private void emit(LineConsumer consumer) throws InterruptedException {
+        int end = length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+        length = 0;
+        consumer.accept(new String(line, 0, end, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,279 @@
+package main.java.importer;
+
+import main.java.model.Phone;
+import main.java.model.Student;
+import main.java.service.StudentService;
+import main.java.service.StudentServiceException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports {@code name,gpa,phone} lines from a registrar export into the student table.
+ * <p>
+ * The import runs as a pipeline of stages connected by bounded queues: the reader splits the file into
+ * line chunks over NIO, one or more parsers turn the lines into {@link Student}s, a validator drops rows
+ * the table cannot hold, and the writer inserts what is left in batches through
+ * {@link StudentService#addStudents}. A full queue blocks the stage feeding it, so a slow database
+ * throttles the reader instead of letting parsed rows pile up in memory. If any stage fails the others
+ * are interrupted and the failure is rethrown; rows already written stay committed.
+ */
+public class StudentImporter {
+
+    // schema limits from database/db_quaries.sql
+    private static final int MAX_NAME_LENGTH = 15;
+    private static final int MAX_REPORTED_REJECTIONS = 10;
+
+    // end-of-stream markers, compared by identity
+    private static final LineChunk END_OF_LINES = new LineChunk(0, new ArrayList<>(0));
+    private static final List<Student> END_OF_STUDENTS = new ArrayList<>(0);
+
+    private final StudentService studentService;
+    private final ImportConfig config;
+    private final AtomicInteger reportedRejections = new AtomicInteger();
+
+    public StudentImporter(StudentService studentService, ImportConfig config) {
+        this.studentService = studentService;
+        this.config = config;
+    }
+
+    public ImportProgress importFile(Path file) throws IOException, InterruptedException {
+        ImportProgress progress = new ImportProgress();
+        BlockingQueue<LineChunk> lines = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        BlockingQueue<List<Student>> parsed = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        BlockingQueue<List<Student>> valid = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+        int stageCount = config.getParserThreads() + 3;
+        ExecutorService stages = Executors.newFixedThreadPool(stageCount, daemonThreads("student-import"));
+        ScheduledExecutorService reporter = startReporter(progress);
+        CompletionService<Void> completion = new ExecutorCompletionService<>(stages);
+        try {
+            completion.submit(() -> {
+                read(file, lines, progress);
+                return null;
+            });
+            for (int i = 0; i < config.getParserThreads(); i++) {
+                completion.submit(() -> {
+                    parse(lines, parsed, progress);
+                    return null;
+                });
+            }
+            completion.submit(() -> {
+                validate(parsed, valid, progress);
+                return null;
+            });
+            completion.submit(() -> {
+                write(valid, progress);
+                return null;
+            });
+            for (int i = 0; i < stageCount; i++) {
+                completion.take().get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Student import of " + file + " failed", cause);
+        } finally {
+            stages.shutdownNow();
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+        }
+        return progress;
+    }
+
+    private void read(Path file, BlockingQueue<LineChunk> lines, ImportProgress progress) throws IOException, InterruptedException {
+        List<String> chunk = new ArrayList<>(config.getLinesPerChunk());
+        long[] lineNumber = {0};
+        long[] chunkStart = {1};
+        new LineReader().read(file, config.isMemoryMapped(), line -> {
+            lineNumber[0]++;
+            if (lineNumber[0] == 1 && config.isSkipHeader()) {
+                chunkStart[0] = 2;
+                return;
+            }
+            chunk.add(line);
+            if (chunk.size() == config.getLinesPerChunk()) {
+                lines.put(new LineChunk(chunkStart[0], new ArrayList<>(chunk)));
+                progress.addLinesRead(chunk.size());
+                chunkStart[0] = lineNumber[0] + 1;
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            lines.put(new LineChunk(chunkStart[0], chunk));
+            progress.addLinesRead(chunk.size());
+        }
+        for (int i = 0; i < config.getParserThreads(); i++) {
+            lines.put(END_OF_LINES);
+        }
+    }
+
+    private void parse(BlockingQueue<LineChunk> lines, BlockingQueue<List<Student>> parsed, ImportProgress progress) throws InterruptedException {
+        LineChunk chunk;
+        while ((chunk = lines.take()) != END_OF_LINES) {
+            List<Student> students = new ArrayList<>(chunk.lines.size());
+            long lineNumber = chunk.firstLineNumber;
+            for (String line : chunk.lines) {
+                Student student = parseLine(line);
+                if (student != null) {
+                    students.add(student);
+                } else if (!line.trim().isEmpty()) {
+                    reject(lineNumber, line, "malformed line", progress);
+                }
+                lineNumber++;
+            }
+            progress.addParsed(students.size());
+            parsed.put(students);
+        }
+        parsed.put(END_OF_STUDENTS);
+    }
+
+    private void validate(BlockingQueue<List<Student>> parsed, BlockingQueue<List<Student>> valid, ImportProgress progress) throws InterruptedException {
+        int parsersRunning = config.getParserThreads();
+        while (parsersRunning > 0) {
+            List<Student> students = parsed.take();
+            if (students == END_OF_STUDENTS) {
+                parsersRunning--;
+                continue;
+            }
+            List<Student> accepted = new ArrayList<>(students.size());
+            for (Student student : students) {
+                String problem = validationProblem(student);
+                if (problem == null) {
+                    accepted.add(student);
+                } else {
+                    reject(-1, student.toString(), problem, progress);
+                }
+            }
+            valid.put(accepted);
+        }
+        valid.put(END_OF_STUDENTS);
+    }
+
+    private void write(BlockingQueue<List<Student>> valid, ImportProgress progress) throws InterruptedException {
+        List<Student> batch = new ArrayList<>(config.getBatchSize());
+        List<Student> students;
+        while ((students = valid.take()) != END_OF_STUDENTS) {
+            for (Student student : students) {
+                batch.add(student);
+                if (batch.size() == config.getBatchSize()) {
+                    flush(batch, progress);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flush(batch, progress);
+        }
+    }
+
+    private void flush(List<Student> batch, ImportProgress progress) {
+        List<Integer> ids;
+        try {
+            ids = studentService.addStudents(batch);
+        } catch (StudentServiceException e) {
+            // the chunks committed before the failure are written all the same
+            progress.addWritten(e.getCommittedIds().size());
+            throw e;
+        }
+        progress.addWritten(ids.size());
+        if (ids.size() != batch.size()) {
+            throw new IllegalStateException("Only " + ids.size() + " of " + batch.size() + " students in a batch were written");
+        }
+        batch.clear();
+    }
+
+    // name,gpa,phone with the name allowed to contain commas or be quoted, "" standing for a quote inside quotes;
+    // null when the line does not fit
+    static Student parseLine(String line) {
+        int phoneSeparator = line.lastIndexOf(',');
+        int gpaSeparator = phoneSeparator <= 0 ? -1 : line.lastIndexOf(',', phoneSeparator - 1);
+        if (gpaSeparator < 0) {
+            return null;
+        }
+        String name = line.substring(0, gpaSeparator).trim();
+        if (name.length() >= 2 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
+            name = name.substring(1, name.length() - 1).replace("\"\"", "\"");
+        }
+        double gpa;
+        try {
+            gpa = Double.parseDouble(line.substring(gpaSeparator + 1, phoneSeparator).trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        Phone phone;
+        try {
+            phone = Phone.of(line.substring(phoneSeparator + 1));
+        } catch (IllegalArgumentException e) {
+            // reported by the validator
+            phone = null;
+        }
+        return new Student(name, gpa, 0, phone);
+    }
+
+    static String validationProblem(Student student) {
+        String name = student.getStudentName();
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            return "name must have 1 to " + MAX_NAME_LENGTH + " characters";
+        }
+        double gpa = student.getGpa();
+        if (Double.isNaN(gpa) || Double.isInfinite(gpa) || gpa < 0) {
+            return "gpa must be a non-negative number";
+        }
+        if (student.getPhone() == null) {
+            return "phone must be a national or international phone number";
+        }
+        return null;
+    }
+
+    private void reject(long lineNumber, String row, String problem, ImportProgress progress) {
+        progress.addRejected(1);
+        if (reportedRejections.incrementAndGet() <= MAX_REPORTED_REJECTIONS) {
+            System.err.println("Rejected " + (lineNumber > 0 ? "line " + lineNumber : "row") + " (" + problem + "): " + row);
+        }
+    }
+
+    private ScheduledExecutorService startReporter(ImportProgress progress) {
+        long interval = config.getProgressIntervalMillis();
+        if (interval == 0) {
+            return null;
+        }
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemonThreads("student-import-progress"));
+        reporter.scheduleAtFixedRate(() -> System.out.println(progress), interval, interval, TimeUnit.MILLISECONDS);
+        return reporter;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class LineChunk {
+        final long firstLineNumber;
+        final List<String> lines;
+
+        LineChunk(long firstLineNumber, List<String> lines) {
+            this.firstLineNumber = firstLineNumber;
+            this.lines = lines;
+        }
+    }
+}
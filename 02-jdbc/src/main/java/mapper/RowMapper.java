@@ -0,0 +1,10 @@
+package main.java.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// maps the current row of a ResultSet, implementations must not move the cursor
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet resultSet) throws SQLException;
+}
@@ -0,0 +1,62 @@
+package main.java.mapper;
+
+import main.java.model.Phone;
+import main.java.model.Student;
+import main.java.model.StudentColumn;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Maps student rows by column index. Positions are looked up once from the ResultSet metadata,
+ * so every row after that is read without label lookups or a builder allocation.
+ * Columns missing from the query, e.g. in a projection, are left at their defaults.
+ */
+public class StudentRowMapper implements RowMapper<Student> {
+
+    private static final int ABSENT = 0;
+
+    private final int idIndex;
+    private final int nameIndex;
+    private final int gpaIndex;
+    private final int phoneIndex;
+
+    private StudentRowMapper(int idIndex, int nameIndex, int gpaIndex, int phoneIndex) {
+        this.idIndex = idIndex;
+        this.nameIndex = nameIndex;
+        this.gpaIndex = gpaIndex;
+        this.phoneIndex = phoneIndex;
+    }
+
+    // resolves the column positions of this ResultSet, reuse the mapper for all of its rows
+    public static StudentRowMapper forResultSet(ResultSet resultSet) throws SQLException {
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int[] indexes = new int[StudentColumn.values().length];
+        for (int index = 1; index <= metaData.getColumnCount(); index++) {
+            String label = metaData.getColumnLabel(index);
+            for (StudentColumn column : StudentColumn.values()) {
+                if (indexes[column.ordinal()] == ABSENT && column.getColumnName().equalsIgnoreCase(label)) {
+                    indexes[column.ordinal()] = index;
+                }
+            }
+        }
+        return new StudentRowMapper(indexes[StudentColumn.ID.ordinal()], indexes[StudentColumn.NAME.ordinal()],
+                indexes[StudentColumn.GPA.ordinal()], indexes[StudentColumn.PHONE.ordinal()]);
+    }
+
+    @Override
+    public Student mapRow(ResultSet resultSet) throws SQLException {
+        return new Student(
+                nameIndex == ABSENT ? null : resultSet.getString(nameIndex),
+                gpaIndex == ABSENT ? 0 : resultSet.getDouble(gpaIndex),
+                idIndex == ABSENT ? 0 : resultSet.getInt(idIndex),
+                phoneIndex == ABSENT ? null : phone(resultSet)
+        );
+    }
+
+    private Phone phone(ResultSet resultSet) throws SQLException {
+        long digits = resultSet.getLong(phoneIndex);
+        return resultSet.wasNull() ? null : Phone.fromE164(digits);
+    }
+}
@@ -0,0 +1,34 @@
+package main.java.metrics;
+
+import main.java.connection.DelegatingConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+// reports every prepared statement of the wrapped connection to a JdbcListener
+public class InstrumentedConnection extends DelegatingConnection {
+
+    private final JdbcListener listener;
+
+    public InstrumentedConnection(Connection delegate, JdbcListener listener) {
+        super(delegate);
+        this.listener = listener;
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return new InstrumentedPreparedStatement(getDelegate().prepareStatement(sql), sql, this, listener);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return new InstrumentedPreparedStatement(getDelegate().prepareStatement(sql, autoGeneratedKeys), sql, this, listener);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new InstrumentedPreparedStatement(getDelegate().prepareStatement(sql, resultSetType, resultSetConcurrency),
+                sql, this, listener);
+    }
+}
@@ -0,0 +1,128 @@
+package main.java.metrics;
+
+import main.java.connection.DelegatingPreparedStatement;
+import main.java.connection.DelegatingResultSet;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// times the executions of one statement and counts the rows its result sets return
+class InstrumentedPreparedStatement extends DelegatingPreparedStatement {
+
+    private final String sql;
+    private final Connection connection;
+    private final JdbcListener listener;
+    private CountingResultSet resultSet;
+
+    InstrumentedPreparedStatement(PreparedStatement delegate, String sql, Connection connection, JdbcListener listener) {
+        super(delegate);
+        this.sql = sql;
+        this.connection = connection;
+        this.listener = listener;
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            ResultSet rows = getDelegate().executeQuery();
+            listener.statementExecuted(sql, System.nanoTime() - start);
+            flushRowCount();
+            resultSet = new CountingResultSet(rows);
+            return resultSet;
+        } catch (SQLException e) {
+            listener.statementFailed(sql, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int updated = getDelegate().executeUpdate();
+            listener.statementExecuted(sql, System.nanoTime() - start);
+            listener.rowsProcessed(sql, updated);
+            return updated;
+        } catch (SQLException e) {
+            listener.statementFailed(sql, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            boolean hasResultSet = getDelegate().execute();
+            listener.statementExecuted(sql, System.nanoTime() - start);
+            if (!hasResultSet) {
+                int updated = getDelegate().getUpdateCount();
+                // -1 when the statement returned nothing at all
+                if (updated >= 0) {
+                    listener.rowsProcessed(sql, updated);
+                }
+            }
+            return hasResultSet;
+        } catch (SQLException e) {
+            listener.statementFailed(sql, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int[] updated = getDelegate().executeBatch();
+            listener.statementExecuted(sql, System.nanoTime() - start);
+            long rows = 0;
+            for (int count : updated) {
+                // SUCCESS_NO_INFO is negative, count it as one row
+                rows += Math.max(count, 1);
+            }
+            listener.rowsProcessed(sql, rows);
+            return updated;
+        } catch (SQLException e) {
+            listener.statementFailed(sql, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        flushRowCount();
+        super.close();
+    }
+
+    private void flushRowCount() {
+        if (resultSet != null) {
+            listener.rowsProcessed(sql, resultSet.rows);
+            resultSet = null;
+        }
+    }
+
+    private static final class CountingResultSet extends DelegatingResultSet {
+        private long rows;
+
+        CountingResultSet(ResultSet delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            boolean hasRow = getDelegate().next();
+            if (hasRow) {
+                rows++;
+            }
+            return hasRow;
+        }
+    }
+}
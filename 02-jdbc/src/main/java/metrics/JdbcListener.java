@@ -0,0 +1,22 @@
+package main.java.metrics;
+
+import java.sql.SQLException;
+
+/**
+ * Callbacks from the instrumented connections handed out by {@code DBConnection} once a listener is installed.
+ * Implementations are called on the caller's thread and must be thread-safe and cheap.
+ */
+public interface JdbcListener {
+
+    // time getConnection() spent waiting for the pool, including validating or opening a connection
+    void connectionAcquired(long waitNanos);
+
+    void connectionFailed(SQLException e);
+
+    void statementExecuted(String sql, long elapsedNanos);
+
+    void statementFailed(String sql, long elapsedNanos, SQLException e);
+
+    // rows read from a result set of the statement, or rows changed by an update
+    void rowsProcessed(String sql, long rows);
+}
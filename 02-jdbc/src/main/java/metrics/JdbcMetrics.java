@@ -0,0 +1,174 @@
+package main.java.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-SQL latency histograms, row and error counts, and connection wait times.
+ * <p>
+ * Install it with {@code DBConnection.setListener(metrics)}; it can then be read over JMX after
+ * {@link #registerMBean(String)} and printed periodically with {@link #startReporting(long, TimeUnit, PrintStream)}.
+ */
+public class JdbcMetrics implements JdbcListener, JdbcMetricsMBean {
+
+    private final ConcurrentHashMap<String, QueryStats> statements = new ConcurrentHashMap<>();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final LongAdder connectionFailures = new LongAdder();
+    private ScheduledExecutorService reporter;
+
+    @Override
+    public void connectionAcquired(long waitNanos) {
+        connectionWait.record(waitNanos);
+    }
+
+    @Override
+    public void connectionFailed(SQLException e) {
+        connectionFailures.increment();
+    }
+
+    @Override
+    public void statementExecuted(String sql, long elapsedNanos) {
+        statsFor(sql).recordExecution(elapsedNanos);
+    }
+
+    @Override
+    public void statementFailed(String sql, long elapsedNanos, SQLException e) {
+        statsFor(sql).recordError(elapsedNanos);
+    }
+
+    @Override
+    public void rowsProcessed(String sql, long rows) {
+        statsFor(sql).recordRows(rows);
+    }
+
+    public Collection<QueryStats> getStatementStats() {
+        return statements.values();
+    }
+
+    public LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    @Override
+    public long getStatementExecutions() {
+        long executions = 0;
+        for (QueryStats stats : statements.values()) {
+            executions += stats.getExecutions();
+        }
+        return executions;
+    }
+
+    @Override
+    public long getStatementErrors() {
+        long errors = 0;
+        for (QueryStats stats : statements.values()) {
+            errors += stats.getErrors();
+        }
+        return errors;
+    }
+
+    @Override
+    public long getRowsProcessed() {
+        long rows = 0;
+        for (QueryStats stats : statements.values()) {
+            rows += stats.getRows();
+        }
+        return rows;
+    }
+
+    @Override
+    public long getConnectionsAcquired() {
+        return connectionWait.getCount();
+    }
+
+    @Override
+    public long getConnectionFailures() {
+        return connectionFailures.sum();
+    }
+
+    @Override
+    public double getConnectionWaitMeanMicros() {
+        return connectionWait.getMeanNanos() / 1_000;
+    }
+
+    @Override
+    public long getConnectionWaitP99Micros() {
+        return TimeUnit.NANOSECONDS.toMicros(connectionWait.getPercentileNanos(99));
+    }
+
+    @Override
+    public long getConnectionWaitMaxMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(connectionWait.getMaxNanos());
+    }
+
+    @Override
+    public String[] getStatementSummaries() {
+        List<String> summaries = new ArrayList<>();
+        for (QueryStats stats : statements.values()) {
+            LatencyHistogram latency = stats.getLatency();
+            summaries.add(String.format("%s | executions=%d errors=%d rows=%d mean=%.1fus p50=%dus p99=%dus max=%dus",
+                    stats.getSql(), stats.getExecutions(), stats.getErrors(), stats.getRows(),
+                    latency.getMeanNanos() / 1_000,
+                    TimeUnit.NANOSECONDS.toMicros(latency.getPercentileNanos(50)),
+                    TimeUnit.NANOSECONDS.toMicros(latency.getPercentileNanos(99)),
+                    TimeUnit.NANOSECONDS.toMicros(latency.getMaxNanos())));
+        }
+        return summaries.toArray(new String[0]);
+    }
+
+    @Override
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("connections: acquired=%d failed=%d wait mean=%.1fus p99=%dus max=%dus%n",
+                getConnectionsAcquired(), getConnectionFailures(), getConnectionWaitMeanMicros(),
+                getConnectionWaitP99Micros(), getConnectionWaitMaxMicros()));
+        for (String summary : getStatementSummaries()) {
+            report.append("  ").append(summary).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+
+    public void registerMBean(String poolName) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("main.java.metrics:type=JdbcMetrics,pool=" + ObjectName.quote(poolName));
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(this, name);
+    }
+
+    // prints report() every period on a daemon thread until stopReporting() is called
+    public synchronized void startReporting(long period, TimeUnit unit, PrintStream out) {
+        stopReporting();
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jdbc-metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> out.print(report()), period, period, unit);
+    }
+
+    public synchronized void stopReporting() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    private QueryStats statsFor(String sql) {
+        QueryStats stats = statements.get(sql);
+        return stats != null ? stats : statements.computeIfAbsent(sql, QueryStats::new);
+    }
+}
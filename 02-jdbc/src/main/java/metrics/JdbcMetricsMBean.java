@@ -0,0 +1,26 @@
+package main.java.metrics;
+
+// JMX view of JdbcMetrics, times are in microseconds
+public interface JdbcMetricsMBean {
+
+    long getStatementExecutions();
+
+    long getStatementErrors();
+
+    long getRowsProcessed();
+
+    long getConnectionsAcquired();
+
+    long getConnectionFailures();
+
+    double getConnectionWaitMeanMicros();
+
+    long getConnectionWaitP99Micros();
+
+    long getConnectionWaitMaxMicros();
+
+    // one line per SQL text: executions, errors, rows and latency percentiles
+    String[] getStatementSummaries();
+
+    String report();
+}
@@ -0,0 +1,49 @@
+package main.java.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// everything recorded for one SQL text
+public class QueryStats {
+
+    private final String sql;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    QueryStats(String sql) {
+        this.sql = sql;
+    }
+
+    void recordExecution(long elapsedNanos) {
+        latency.record(elapsedNanos);
+    }
+
+    void recordError(long elapsedNanos) {
+        latency.record(elapsedNanos);
+        errors.increment();
+    }
+
+    void recordRows(long count) {
+        rows.add(count);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public long getExecutions() {
+        return latency.getCount();
+    }
+
+    public long getRows() {
+        return rows.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+}
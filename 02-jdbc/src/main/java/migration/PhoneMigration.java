@@ -0,0 +1,181 @@
+package main.java.migration;
+
+import main.java.connection.DBConnection;
+import main.java.model.Phone;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+/**
+ * One-off conversion of {@code student.phone} from the old VARCHAR text to E.164 digits in a BIGINT column.
+ * <p>
+ * The converted numbers are written to a new {@code phone_e164} column a page of rows at a time, after which a single
+ * {@code ALTER TABLE} drops the old column and gives the new one its name. Values such as {@code 01128673348},
+ * {@code +201128673348} or {@code +2+201128673348} are all read by {@link Phone#of(String)}; rows it cannot
+ * read are left without a phone, and their original text is kept in {@code phone_migration_rejects}.
+ * Dropping the old column also drops its index, so the BIGINT column is indexed afterwards as {@code idx_student_phone}.
+ * A run that stopped before the old column was replaced starts the conversion over, one that stopped after the old
+ * column was dropped only renames the new one, and running it on a migrated table does nothing.
+ */
+public class PhoneMigration {
+
+    private static final int PAGE_SIZE = 500;
+    private static final String NEW_COLUMN = "phone_e164";
+    private static final String REJECTS_TABLE = "phone_migration_rejects";
+    private static final String PHONE_INDEX = "idx_student_phone";
+
+    public static void main(String[] args) throws SQLException {
+        try {
+            new PhoneMigration().migrate();
+        } finally {
+            DBConnection.shutdown();
+        }
+    }
+
+    // returns the number of phones converted
+    public int migrate() throws SQLException {
+        try (Connection con = DBConnection.getConnection()) {
+            Integer phoneType = columnType(con, "phone");
+            boolean started = columnType(con, NEW_COLUMN) != null;
+            if (phoneType == null && started) {
+                // left behind by a run that dropped the old column and stopped before renaming the new one
+                execute(con, "ALTER TABLE student CHANGE COLUMN " + NEW_COLUMN + " phone BIGINT");
+                indexPhone(con);
+                System.out.println("Finished an earlier phone migration that stopped before renaming " + NEW_COLUMN);
+                return 0;
+            }
+            if (phoneType == null) {
+                throw new SQLException("Table student has neither a phone nor a " + NEW_COLUMN + " column");
+            }
+            if (phoneType == Types.BIGINT) {
+                System.out.println("student.phone is already stored as E.164 digits");
+                return 0;
+            }
+            // a run that stopped halfway left the new column behind, its rows are converted again
+            if (!started) {
+                execute(con, "ALTER TABLE student ADD COLUMN " + NEW_COLUMN + " BIGINT");
+            }
+            execute(con, "CREATE TABLE IF NOT EXISTS " + REJECTS_TABLE + " (id INT PRIMARY KEY, phone VARCHAR(255))");
+            execute(con, "DELETE FROM " + REJECTS_TABLE);
+            int converted = convert(con);
+            // one statement, so the table is never left without a phone column
+            execute(con, "ALTER TABLE student DROP COLUMN phone, CHANGE COLUMN " + NEW_COLUMN + " phone BIGINT");
+            indexPhone(con);
+            System.out.println("Converted " + converted + " phone numbers to E.164");
+            int rejected = countRejects(con);
+            if (rejected > 0) {
+                System.err.println(rejected + " phones could not be read and were cleared, their text is in " + REJECTS_TABLE);
+            }
+            return converted;
+        }
+    }
+
+    private int convert(Connection con) throws SQLException {
+        int converted = 0;
+        con.setAutoCommit(false);
+        try (PreparedStatement select = con.prepareStatement("SELECT id, phone FROM student WHERE id > ? ORDER BY id LIMIT " + PAGE_SIZE);
+             PreparedStatement update = con.prepareStatement("UPDATE student SET " + NEW_COLUMN + "=? WHERE id=?");
+             PreparedStatement reject = con.prepareStatement("INSERT INTO " + REJECTS_TABLE + " (id, phone) VALUES(?,?)")) {
+            int lastId = Integer.MIN_VALUE;
+            int rows;
+            do {
+                rows = 0;
+                boolean rejects = false;
+                select.setInt(1, lastId);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        lastId = resultSet.getInt(1);
+                        rows++;
+                        String text = resultSet.getString(2);
+                        Phone phone = parse(text);
+                        if (phone == null) {
+                            update.setNull(1, Types.BIGINT);
+                            if (text != null && !text.trim().isEmpty()) {
+                                reject.setInt(1, lastId);
+                                reject.setString(2, text);
+                                reject.addBatch();
+                                rejects = true;
+                            }
+                        } else {
+                            update.setLong(1, phone.toE164());
+                            converted++;
+                        }
+                        update.setInt(2, lastId);
+                        update.addBatch();
+                    }
+                }
+                update.executeBatch();
+                if (rejects) {
+                    reject.executeBatch();
+                }
+                con.commit();
+            } while (rows == PAGE_SIZE);
+        } catch (SQLException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(true);
+        }
+        return converted;
+    }
+
+    // null for a missing phone and for text that is not a phone number
+    private static Phone parse(String phone) {
+        if (phone == null || phone.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Phone.of(phone);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int countRejects(Connection con) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + REJECTS_TABLE)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    // JDBC type of the column, null when the table has no such column
+    private static Integer columnType(Connection con, String column) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM student WHERE 1=0")) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int index = 1; index <= metaData.getColumnCount(); index++) {
+                if (metaData.getColumnLabel(index).equalsIgnoreCase(column)) {
+                    return metaData.getColumnType(index);
+                }
+            }
+            return null;
+        }
+    }
+
+    // the index on the old column went with it
+    private static void indexPhone(Connection con) throws SQLException {
+        DatabaseMetaData metaData = con.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "STUDENT" : "student";
+        try (ResultSet resultSet = metaData.getIndexInfo(con.getCatalog(), null, table, false, false)) {
+            while (resultSet.next()) {
+                if ("phone".equalsIgnoreCase(resultSet.getString("COLUMN_NAME")) && resultSet.getShort("ORDINAL_POSITION") == 1) {
+                    return;
+                }
+            }
+        }
+        execute(con, "CREATE INDEX " + PHONE_INDEX + " ON student (phone)");
+    }
+
+    private static void execute(Connection con, String sql) throws SQLException {
+        try (Statement statement = con.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package main.java.model;
+
+/**
+ * Phone number in E.164 form: country code and subscriber number, at most 15 digits.
+ * <p>
+ * The digits are kept in a {@code long}, which is also how the student table stores them (a BIGINT column),
+ * so reading and writing a phone needs no string building. The {@code +} is only added by {@link #toString()}.
+ */
+public final class Phone {
+
+    // numbers written without a country code are Egyptian
+    public static final int DEFAULT_COUNTRY_CODE = 20;
+    // length of a national number written without its leading 0, such as 1128673348
+    private static final int NATIONAL_DIGITS = 10;
+
+    private static final int MAX_DIGITS = 15;
+    private static final long MAX_VALUE = 999_999_999_999_999L;
+    // shortest country code plus subscriber number accepted
+    private static final long MIN_VALUE = 1_000_000L;
+
+    private final long digits;
+
+    private Phone(long digits) {
+        this.digits = digits;
+    }
+
+    // number as stored in the student table
+    public static Phone fromE164(long digits) {
+        if (digits < MIN_VALUE || digits > MAX_VALUE) {
+            throw new IllegalArgumentException("Not an E.164 phone number: " + digits);
+        }
+        return new Phone(digits);
+    }
+
+    /**
+     * Parses {@code +201128673348}, {@code 00201128673348} or the national {@code 01128673348}.
+     * Spaces, dashes, dots and parentheses are ignored, as are the extra {@code +2} prefixes that
+     * earlier versions of the service added on every write. Bare digits are only read as a national number
+     * that lost its leading 0 ({@code 1128673348}); any other length needs a {@code +} or {@code 00}.
+     */
+    public static Phone of(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Phone number is missing");
+        }
+        String number = stripSeparators(text);
+        while (number.startsWith("+2+")) {
+            number = number.substring(2);
+        }
+        long prefix = 0;
+        int start;
+        if (number.startsWith("+")) {
+            start = 1;
+        } else if (number.startsWith("00")) {
+            start = 2;
+        } else if (number.startsWith("0")) {
+            prefix = DEFAULT_COUNTRY_CODE;
+            start = 1;
+        } else if (number.length() == NATIONAL_DIGITS) {
+            prefix = DEFAULT_COUNTRY_CODE;
+            start = 0;
+        } else {
+            throw new IllegalArgumentException("Phone number has no country code, write it with + or 00: " + text);
+        }
+        if (number.length() - start > MAX_DIGITS) {
+            throw new IllegalArgumentException("Phone number has more than " + MAX_DIGITS + " digits: " + text);
+        }
+        long digits = prefix;
+        for (int i = start; i < number.length(); i++) {
+            char c = number.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Not a phone number: " + text);
+            }
+            digits = digits * 10 + (c - '0');
+        }
+        if (digits < MIN_VALUE || digits > MAX_VALUE) {
+            throw new IllegalArgumentException("Not a phone number: " + text);
+        }
+        return new Phone(digits);
+    }
+
+    public long toE164() {
+        return digits;
+    }
+
+    private static String stripSeparators(String text) {
+        StringBuilder number = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != ' ' && c != '-' && c != '.' && c != '(' && c != ')') {
+                number.append(c);
+            }
+        }
+        return number.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Phone && ((Phone) o).digits == digits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(digits);
+    }
+
+    @Override
+    public String toString() {
+        return "+" + digits;
+    }
+}
@@ -6,9 +6,9 @@ public class Student {
     private  String studentName;
     private  double gpa;
     private int id;
-    private  String phone;
+    private  Phone phone;
 
-    public Student(String studentName, double gpa, int id, String phone) {
+    public Student(String studentName, double gpa, int id, Phone phone) {
         this.studentName = studentName;
         this.gpa = gpa;
         this.id = id;
@@ -39,11 +39,11 @@ public class Student {
         this.id = id;
     }
 
-    public String getPhone() {
+    public Phone getPhone() {
         return phone;
     }
 
-    public void setPhone(String phone) {
+    public void setPhone(Phone phone) {
         this.phone = phone;
     }
 
@@ -53,7 +53,7 @@ public class Student {
                 "studentName='" + studentName + '\'' +
                 ", gpa=" + gpa +
                 ", id=" + id +
-                ", phone='" + phone + '\'' +
+                ", phone=" + phone +
                 '}';
     }
 
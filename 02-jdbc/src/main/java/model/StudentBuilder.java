@@ -5,7 +5,7 @@ public class StudentBuilder {
     private  String studentName;
     private  double gpa;
     private int id;
-    private  String phone;
+    private  Phone phone;
 
     public StudentBuilder id(int id){
         this.id=id;
@@ -19,10 +19,15 @@ public class StudentBuilder {
         this.studentName=name;
         return this;
     }
-    public StudentBuilder phone(String phone){
+    public StudentBuilder phone(Phone phone){
         this.phone=phone;
         return this;
     }
+    // national or international number, see Phone.of
+    public StudentBuilder phone(String phone){
+        this.phone=Phone.of(phone);
+        return this;
+    }
 
     //builder method
     public Student build(){
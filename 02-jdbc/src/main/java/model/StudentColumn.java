@@ -0,0 +1,19 @@
+package main.java.model;
+
+// columns of the student table that a query can project
+public enum StudentColumn {
+    ID("id"),
+    NAME("name"),
+    GPA("gpa"),
+    PHONE("phone");
+
+    private final String columnName;
+
+    StudentColumn(String columnName) {
+        this.columnName = columnName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+}
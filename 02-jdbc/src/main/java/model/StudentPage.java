@@ -0,0 +1,38 @@
+package main.java.model;
+
+import java.util.List;
+
+// one page of a keyset-paginated query, pass getLastId() as afterId to read the next one
+public class StudentPage {
+
+    private final List<Student> students;
+    private final int lastId;
+    private final boolean hasNext;
+
+    public StudentPage(List<Student> students, int lastId, boolean hasNext) {
+        this.students = students;
+        this.lastId = lastId;
+        this.hasNext = hasNext;
+    }
+
+    public List<Student> getStudents() {
+        return students;
+    }
+
+    public int getLastId() {
+        return lastId;
+    }
+
+    public boolean hasNext() {
+        return hasNext;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentPage{" +
+                "students=" + students +
+                ", lastId=" + lastId +
+                ", hasNext=" + hasNext +
+                '}';
+    }
+}
@@ -0,0 +1,43 @@
+package main.java.service;
+
+import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+// non-blocking counterpart of StudentService, each call runs on its own thread and completes the returned future
+public interface AsyncStudentService extends AutoCloseable {
+
+    CompletableFuture<List<Student>> getAllStudent();
+
+    CompletableFuture<Void> forEachStudent(Consumer<Student> action);
+
+    CompletableFuture<Student> getStuById(int id);
+
+    CompletableFuture<Map<Integer, Student>> getStudentsByIds(Collection<Integer> ids);
+
+    CompletableFuture<StudentPage> getStudentPage(int afterId, int pageSize, StudentColumn... columns);
+
+    CompletableFuture<List<Student>> getStudentsByGpaRange(double minGpa, double maxGpa);
+
+    CompletableFuture<Void> updateStudent(Student student);
+
+    CompletableFuture<Void> AddStudent(Student student);
+
+    CompletableFuture<Void> deleteStudent(int id);
+
+    CompletableFuture<List<Integer>> addStudents(Collection<Student> students);
+
+    CompletableFuture<Void> updateStudents(Collection<Student> students);
+
+    CompletableFuture<Void> deleteStudents(Collection<Integer> ids);
+
+    // stops accepting calls, calls already submitted still complete
+    @Override
+    void close();
+}
@@ -2,18 +2,49 @@ package main.java.service;
 
 
 import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface StudentService {
 
     List<Student> getAllStudent();
 
+    // rows are fetched from the server in chunks as the stream is consumed, close the stream to release the connection
+    Stream<Student> streamAllStudents();
+
+    void forEachStudent(Consumer<Student> action);
+
     Student getStuById(int id);
 
+    // students for the given ids keyed by id, in the order the ids were given; unknown ids are left out
+    Map<Integer, Student> getStudentsByIds(Collection<Integer> ids);
+
+    // keyset pagination: up to pageSize students with id > afterId in id order,
+    // reading only the given columns (id is always read, no columns means all of them)
+    StudentPage getStudentPage(int afterId, int pageSize, StudentColumn... columns);
+
+    // students with minGpa <= gpa <= maxGpa, ordered by gpa and then id
+    List<Student> getStudentsByGpaRange(double minGpa, double maxGpa);
+
     void updateStudent(Student student);
 
     void AddStudent(Student student);
 
     void deleteStudent(int id);
+
+    // batch variants, sent with executeBatch in chunks of the configured batch size, each committed on its own;
+    // when a chunk fails the ones before it stay committed and the StudentServiceException carries their ids and
+    // the items of the failed chunk
+
+    List<Integer> addStudents(Collection<Student> students);
+
+    void updateStudents(Collection<Student> students);
+
+    void deleteStudents(Collection<Integer> ids);
 }
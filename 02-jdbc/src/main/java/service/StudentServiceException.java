@@ -0,0 +1,32 @@
+package main.java.service;
+
+import java.util.Collections;
+import java.util.List;
+
+// a StudentService call that failed against the database, thrown instead of returning an empty or partial result
+public class StudentServiceException extends RuntimeException {
+
+    private final List<Integer> committedIds;
+    private final List<?> failedItems;
+
+    public StudentServiceException(String message, Throwable cause) {
+        this(message, cause, Collections.emptyList(), Collections.emptyList());
+    }
+
+    // a batch call that failed after committing some of its chunks
+    public StudentServiceException(String message, Throwable cause, List<Integer> committedIds, List<?> failedItems) {
+        super(message, cause);
+        this.committedIds = Collections.unmodifiableList(committedIds);
+        this.failedItems = Collections.unmodifiableList(failedItems);
+    }
+
+    // ids of the students the call committed before failing: the generated ids for addStudents, the given ones otherwise
+    public List<Integer> getCommittedIds() {
+        return committedIds;
+    }
+
+    // the items of the chunk that failed, as they were passed in; the chunks after it were not sent
+    public List<?> getFailedItems() {
+        return failedItems;
+    }
+}
@@ -0,0 +1,185 @@
+package main.java.service.impl;
+
+import main.java.connection.DBConnection;
+import main.java.connection.ReadYourWritesSession;
+import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
+import main.java.service.AsyncStudentService;
+import main.java.service.StudentService;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs every call of a blocking {@link StudentService} on a virtual thread of its own.
+ * <p>
+ * A virtual thread that waits for a pooled connection or for the database parks instead of holding
+ * a platform thread, so thousands of calls can be in flight while the connection pool alone decides
+ * how many of them reach the database at once. On JVMs older than 21 there are no virtual threads,
+ * and calls run on a fixed pool of the given number of platform threads instead, best sized like the pool.
+ * <p>
+ * MySQL Connector/J 5.1 does its socket I/O inside {@code synchronized} blocks, and a virtual thread blocked there
+ * pins its carrier thread. With more calls at the database than carriers, every carrier is pinned and other virtual
+ * threads wait until a call returns. Where that matters, opt into a limit of {@link #carrierThreads()} calls with
+ * the three-argument constructor; the rest then wait parked for a turn. A driver without synchronized I/O
+ * (Connector/J 8.0.33 and later) does not need it.
+ * <p>
+ * A call that fails in the delegate completes its future exceptionally with the delegate's exception,
+ * usually a {@link main.java.service.StudentServiceException}.
+ */
+public class AsyncStudentServiceImpl implements AsyncStudentService {
+
+    // null on JVMs without virtual threads
+    private static final Method VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutor();
+
+    private final StudentService delegate;
+    private final ExecutorService executor;
+    // calls allowed in the delegate at once, null when the connection pool alone limits them
+    private final Semaphore permits;
+
+    // platformThreads is only used without virtual threads
+    public AsyncStudentServiceImpl(StudentService delegate, int platformThreads) {
+        this(delegate, newPerTaskExecutor(platformThreads));
+    }
+
+    public AsyncStudentServiceImpl(StudentService delegate, ExecutorService executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.permits = null;
+    }
+
+    public AsyncStudentServiceImpl(StudentService delegate, ExecutorService executor, int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be at least 1, was " + maxConcurrentCalls);
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentCalls, true);
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getAllStudent() {
+        return supply(delegate::getAllStudent);
+    }
+
+    @Override
+    public CompletableFuture<Void> forEachStudent(Consumer<Student> action) {
+        return run(() -> delegate.forEachStudent(action));
+    }
+
+    @Override
+    public CompletableFuture<Student> getStuById(int id) {
+        return supply(() -> delegate.getStuById(id));
+    }
+
+    @Override
+    public CompletableFuture<Map<Integer, Student>> getStudentsByIds(Collection<Integer> ids) {
+        return supply(() -> delegate.getStudentsByIds(ids));
+    }
+
+    @Override
+    public CompletableFuture<StudentPage> getStudentPage(int afterId, int pageSize, StudentColumn... columns) {
+        return supply(() -> delegate.getStudentPage(afterId, pageSize, columns));
+    }
+
+    @Override
+    public CompletableFuture<List<Student>> getStudentsByGpaRange(double minGpa, double maxGpa) {
+        return supply(() -> delegate.getStudentsByGpaRange(minGpa, maxGpa));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateStudent(Student student) {
+        return run(() -> delegate.updateStudent(student));
+    }
+
+    @Override
+    public CompletableFuture<Void> AddStudent(Student student) {
+        return run(() -> delegate.AddStudent(student));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteStudent(int id) {
+        return run(() -> delegate.deleteStudent(id));
+    }
+
+    @Override
+    public CompletableFuture<List<Integer>> addStudents(Collection<Student> students) {
+        return supply(() -> delegate.addStudents(students));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateStudents(Collection<Student> students) {
+        return run(() -> delegate.updateStudents(students));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteStudents(Collection<Integer> ids) {
+        return run(() -> delegate.deleteStudents(ids));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    // the call runs under the caller's read-your-writes session, so it reads what the caller wrote before
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        ReadYourWritesSession session = DBConnection.currentSession();
+        if (permits == null) {
+            return CompletableFuture.supplyAsync(() -> DBConnection.callInSession(session, call), executor);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return DBConnection.callInSession(session, call);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    private CompletableFuture<Void> run(Runnable call) {
+        return supply(() -> {
+            call.run();
+            return null;
+        });
+    }
+
+    // the carrier threads of the virtual thread scheduler, one per processor unless told otherwise
+    public static int carrierThreads() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+
+    // a virtual thread per task, or a fixed pool of platformThreads on JVMs without virtual threads
+    public static ExecutorService newPerTaskExecutor(int platformThreads) {
+        if (platformThreads < 1) {
+            throw new IllegalArgumentException("platformThreads must be at least 1, was " + platformThreads);
+        }
+        if (VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (ExecutorService) VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fall back to platform threads
+            }
+        }
+        return Executors.newFixedThreadPool(platformThreads);
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is looked up reflectively because the module still targets Java 8
+    private static Method virtualThreadExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package main.java.service.impl;
+
+import main.java.cache.CacheStats;
+import main.java.cache.LruCache;
+import main.java.connection.StudentUnitOfWork;
+import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
+import main.java.service.StudentService;
+import main.java.service.StudentServiceException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache for {@link #getStuById(int)} in front of any other {@link StudentService}.
+ * Updates and deletes made through this service invalidate the affected ids, and inside a
+ * {@link StudentUnitOfWork} invalidate them again once it commits; every other call goes
+ * straight to the delegate. Callers get their own copy of a cached student, so changing it does not
+ * change the cache.
+ */
+public class CachingStudentService implements StudentService {
+
+    private final StudentService delegate;
+    private final LruCache<Integer, Student> cache;
+
+    public CachingStudentService(StudentService delegate, int maxSize, long ttl, TimeUnit unit) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>(maxSize, ttl, unit);
+    }
+
+    @Override
+    public Student getStuById(int id) {
+        Student cached = cache.get(id);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        long epoch = cache.epoch();
+        Student student = delegate.getStuById(id);
+        if (student != null && !StudentUnitOfWork.isActive()) {
+            cache.put(id, copyOf(student), epoch);
+        }
+        return student;
+    }
+
+    // cached students are served directly, the rest are loaded in one call to the delegate and cached
+    @Override
+    public Map<Integer, Student> getStudentsByIds(Collection<Integer> ids) {
+        Map<Integer, Student> students = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Student cached = cache.get(id);
+            if (cached != null) {
+                students.put(id, copyOf(cached));
+            } else {
+                // placeholder keeps the caller's order, filled or removed below
+                students.put(id, null);
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long epoch = cache.epoch();
+            // rows read inside a unit of work may never be committed, so they are not cached
+            boolean inUnitOfWork = StudentUnitOfWork.isActive();
+            Map<Integer, Student> loaded = delegate.getStudentsByIds(missing);
+            for (Integer id : missing) {
+                Student student = loaded.get(id);
+                if (student == null) {
+                    students.remove(id);
+                } else {
+                    students.put(id, student);
+                    if (!inUnitOfWork) {
+                        cache.put(id, copyOf(student), epoch);
+                    }
+                }
+            }
+        }
+        return students;
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        delegate.updateStudent(student);
+        invalidate(Collections.singletonList(student.getId()));
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        delegate.deleteStudent(id);
+        invalidate(Collections.singletonList(id));
+    }
+
+    @Override
+    public void updateStudents(Collection<Student> students) {
+        try {
+            delegate.updateStudents(students);
+        } catch (StudentServiceException e) {
+            // the chunks before the failed one are committed
+            invalidate(e.getCommittedIds());
+            throw e;
+        }
+        List<Integer> ids = new ArrayList<>(students.size());
+        for (Student student : students) {
+            ids.add(student.getId());
+        }
+        invalidate(ids);
+    }
+
+    @Override
+    public void deleteStudents(Collection<Integer> ids) {
+        try {
+            delegate.deleteStudents(ids);
+        } catch (StudentServiceException e) {
+            invalidate(e.getCommittedIds());
+            throw e;
+        }
+        invalidate(new ArrayList<>(ids));
+    }
+
+    @Override
+    public List<Student> getAllStudent() {
+        return delegate.getAllStudent();
+    }
+
+    @Override
+    public Stream<Student> streamAllStudents() {
+        return delegate.streamAllStudents();
+    }
+
+    @Override
+    public void forEachStudent(Consumer<Student> action) {
+        delegate.forEachStudent(action);
+    }
+
+    @Override
+    public StudentPage getStudentPage(int afterId, int pageSize, StudentColumn... columns) {
+        return delegate.getStudentPage(afterId, pageSize, columns);
+    }
+
+    @Override
+    public List<Student> getStudentsByGpaRange(double minGpa, double maxGpa) {
+        return delegate.getStudentsByGpaRange(minGpa, maxGpa);
+    }
+
+    @Override
+    public void AddStudent(Student student) {
+        delegate.AddStudent(student);
+    }
+
+    @Override
+    public List<Integer> addStudents(Collection<Student> students) {
+        return delegate.addStudents(students);
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    // inside a unit of work the change is not visible to other connections until it commits, and a reader can
+    // cache the old row in the meantime, so the ids are invalidated again after the commit
+    private void invalidate(List<Integer> ids) {
+        for (Integer id : ids) {
+            cache.invalidate(id);
+        }
+        if (StudentUnitOfWork.isActive()) {
+            StudentUnitOfWork.afterCommit(() -> {
+                for (Integer id : ids) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    private static Student copyOf(Student student) {
+        return new Student(student.getStudentName(), student.getGpa(), student.getId(), student.getPhone());
+    }
+}
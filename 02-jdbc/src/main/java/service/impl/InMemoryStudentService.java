@@ -0,0 +1,383 @@
+package main.java.service.impl;
+
+import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
+import main.java.service.StudentService;
+import main.java.storage.GpaIndex;
+import main.java.storage.IntObjectMap;
+import main.java.storage.SortedIntSet;
+import main.java.storage.StudentLog;
+import main.java.storage.StudentSnapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link StudentService} that keeps the students in process memory, for load tests and deployments without MySQL.
+ * <p>
+ * Students are stored in an {@link IntObjectMap} keyed by id, the ids are also kept sorted for full reads and
+ * keyset pages, and a {@link GpaIndex} answers {@link #getStudentsByGpaRange}. Ids are assigned in increasing order
+ * like the AUTO_INCREMENT column, and the ids of deleted students are not handed out again, across restarts too.
+ * Students are copied on the way in and out, so callers cannot change stored ones.
+ * <p>
+ * Given a directory, the store is durable: every change is appended to a memory-mapped {@link StudentLog} before
+ * it is applied, and once the log passes 64 MB the whole store is written to a
+ * {@link StudentSnapshot} and the log starts over. On start the snapshot is loaded and the log replayed on top.
+ */
+public class InMemoryStudentService implements StudentService, AutoCloseable {
+
+    private static final int SNAPSHOT_THRESHOLD_BYTES = 64 << 20;
+    private static final String SNAPSHOT_FILE = "students.snapshot";
+    private static final String LOG_FILE = "students.log";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntObjectMap<Student> students = new IntObjectMap<>(1024);
+    private final SortedIntSet ids = new SortedIntSet();
+    private final GpaIndex gpaIndex = new GpaIndex();
+    private int nextId = 1;
+    // both null when the store is not persisted
+    private final Path snapshotFile;
+    private final StudentLog log;
+
+    public InMemoryStudentService() {
+        this.snapshotFile = null;
+        this.log = null;
+    }
+
+    public InMemoryStudentService(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        // ids of students deleted before the snapshot are not in it, only in the next id it records
+        nextId = Math.max(nextId, StudentSnapshot.read(snapshotFile, this::store));
+        this.log = new StudentLog(directory.resolve(LOG_FILE));
+        // entries already in the snapshot are applied again, which leaves the same state
+        log.replay(this::store, this::discard);
+    }
+
+    @Override
+    public List<Student> getAllStudent() {
+        lock.readLock().lock();
+        try {
+            List<Student> all = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                all.add(copyOf(students.get(ids.get(i))));
+            }
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // a copy taken when the stream is created, later changes are not seen
+    @Override
+    public Stream<Student> streamAllStudents() {
+        return getAllStudent().stream();
+    }
+
+    @Override
+    public void forEachStudent(Consumer<Student> action) {
+        getAllStudent().forEach(action);
+    }
+
+    @Override
+    public Student getStuById(int id) {
+        lock.readLock().lock();
+        try {
+            return id == 0 ? null : copyOf(students.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Student> getStudentsByIds(Collection<Integer> ids) {
+        Map<Integer, Student> found = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Integer id : ids) {
+                Student student = id == 0 ? null : students.get(id);
+                if (student != null) {
+                    found.put(id, copyOf(student));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public StudentPage getStudentPage(int afterId, int pageSize, StudentColumn... columns) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1, was " + pageSize);
+        }
+        EnumSet<StudentColumn> projection = columns.length == 0
+                ? EnumSet.allOf(StudentColumn.class)
+                : EnumSet.of(StudentColumn.ID, columns);
+        List<Student> page = new ArrayList<>(pageSize);
+        boolean hasNext;
+        lock.readLock().lock();
+        try {
+            int from = ids.indexAfter(afterId);
+            int to = Math.min(from + pageSize, ids.size());
+            for (int i = from; i < to; i++) {
+                page.add(project(students.get(ids.get(i)), projection));
+            }
+            hasNext = to < ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        int lastId = page.isEmpty() ? afterId : page.get(page.size() - 1).getId();
+        return new StudentPage(page, lastId, hasNext);
+    }
+
+    @Override
+    public List<Student> getStudentsByGpaRange(double minGpa, double maxGpa) {
+        lock.readLock().lock();
+        try {
+            int[] matching = gpaIndex.range(minGpa, maxGpa);
+            List<Student> inRange = new ArrayList<>(matching.length);
+            for (int id : matching) {
+                inRange.add(copyOf(students.get(id)));
+            }
+            return inRange;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void updateStudent(Student student) {
+        lock.writeLock().lock();
+        try {
+            update(student);
+            snapshotIfLogIsFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void AddStudent(Student student) {
+        lock.writeLock().lock();
+        try {
+            add(student);
+            snapshotIfLogIsFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteStudent(int id) {
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            snapshotIfLogIsFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Integer> addStudents(Collection<Student> students) {
+        List<Integer> generatedIds = new ArrayList<>(students.size());
+        lock.writeLock().lock();
+        try {
+            for (Student student : students) {
+                generatedIds.add(add(student));
+            }
+            snapshotIfLogIsFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return generatedIds;
+    }
+
+    @Override
+    public void updateStudents(Collection<Student> students) {
+        lock.writeLock().lock();
+        try {
+            for (Student student : students) {
+                update(student);
+            }
+            snapshotIfLogIsFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteStudents(Collection<Integer> ids) {
+        lock.writeLock().lock();
+        try {
+            // removed from the sorted ids together, one shift per id would make large deletes quadratic
+            int[] removed = new int[ids.size()];
+            int count = 0;
+            for (int id : ids) {
+                if (unlink(id)) {
+                    removed[count++] = id;
+                }
+            }
+            this.ids.removeAll(removed, count);
+            snapshotIfLogIsFull();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return students.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // writes every student and the next id to the snapshot file and empties the log; nothing to do for a store that is not persisted
+    public void snapshot() throws IOException {
+        if (log == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Student> all = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                all.add(students.get(ids.get(i)));
+            }
+            StudentSnapshot.write(snapshotFile, all, nextId);
+            log.reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // forces logged changes to disk
+    public void sync() {
+        if (log != null) {
+            log.sync();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (log != null) {
+            lock.writeLock().lock();
+            try {
+                log.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private int add(Student student) {
+        Student stored = new Student(student.getStudentName(), student.getGpa(), nextId, student.getPhone());
+        append(stored);
+        store(stored);
+        return stored.getId();
+    }
+
+    // like UPDATE ... WHERE id=?, an unknown id changes nothing
+    private void update(Student student) {
+        if (student.getId() == 0 || students.get(student.getId()) == null) {
+            return;
+        }
+        Student stored = copyOf(student);
+        append(stored);
+        store(stored);
+    }
+
+    private void delete(int id) {
+        if (unlink(id)) {
+            ids.remove(id);
+        }
+    }
+
+    // logs the delete and removes the student from the map and the gpa index, leaving its id to the caller;
+    // false when there is no such student
+    private boolean unlink(int id) {
+        if (id == 0 || students.get(id) == null) {
+            return false;
+        }
+        if (log != null) {
+            try {
+                log.appendDelete(id);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        Student previous = students.remove(id);
+        gpaIndex.remove(previous.getGpa(), id);
+        return true;
+    }
+
+    private void append(Student stored) {
+        if (log != null) {
+            try {
+                log.appendPut(stored);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    // applies an insert or update to the map and both indexes, also used when loading and replaying
+    private void store(Student stored) {
+        int id = stored.getId();
+        Student previous = students.put(id, stored);
+        if (previous != null) {
+            gpaIndex.remove(previous.getGpa(), id);
+        } else {
+            ids.add(id);
+        }
+        gpaIndex.add(stored.getGpa(), id);
+        if (id >= nextId) {
+            nextId = id + 1;
+        }
+    }
+
+    private void discard(int id) {
+        Student previous = students.remove(id);
+        if (previous != null) {
+            ids.remove(id);
+            gpaIndex.remove(previous.getGpa(), id);
+        }
+    }
+
+    private void snapshotIfLogIsFull() {
+        if (log != null && log.size() > SNAPSHOT_THRESHOLD_BYTES) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static Student project(Student student, EnumSet<StudentColumn> projection) {
+        return new Student(
+                projection.contains(StudentColumn.NAME) ? student.getStudentName() : null,
+                projection.contains(StudentColumn.GPA) ? student.getGpa() : 0,
+                student.getId(),
+                projection.contains(StudentColumn.PHONE) ? student.getPhone() : null);
+    }
+
+    private static Student copyOf(Student student) {
+        return student == null ? null
+                : new Student(student.getStudentName(), student.getGpa(), student.getId(), student.getPhone());
+    }
+}
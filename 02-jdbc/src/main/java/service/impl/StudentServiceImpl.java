@@ -2,37 +2,102 @@ package main.java.service.impl;
 
 
 import main.java.connection.DBConnection;
+import main.java.connection.StudentUnitOfWork;
+import main.java.mapper.StudentRowMapper;
+import main.java.model.Phone;
 import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
 import main.java.service.StudentService;
+import main.java.service.StudentServiceException;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class StudentServiceImpl implements StudentService {
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    // rows per round trip while streaming, with useCursorFetch MySQL serves them from a server-side cursor
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // one SQL text per projection, indexed by the bit set of projected column ordinals,
+    // so every projection keeps hitting the same cached statement
+    private static final String[] PAGE_QUERIES = new String[1 << StudentColumn.values().length];
+
+    static {
+        StudentColumn[] columns = StudentColumn.values();
+        for (int mask = 0; mask < PAGE_QUERIES.length; mask++) {
+            StringBuilder select = new StringBuilder("SELECT ");
+            for (StudentColumn column : columns) {
+                if ((mask & (1 << column.ordinal())) != 0) {
+                    select.append(column.getColumnName()).append(',');
+                }
+            }
+            select.setLength(select.length() - 1);
+            PAGE_QUERIES[mask] = select.append(" FROM student WHERE id > ? ORDER BY id LIMIT ?").toString();
+        }
+    }
+
+    // ids per IN list are rounded up to a power of two, so only log2(MAX_IN_LIST_SIZE) + 1 distinct
+    // statements exist and each of them stays in the statement cache
+    private static final int MAX_IN_LIST_SIZE = 256;
+    private static final String[] IN_QUERIES = new String[Integer.numberOfTrailingZeros(MAX_IN_LIST_SIZE) + 1];
+
+    static {
+        for (int bucket = 0; bucket < IN_QUERIES.length; bucket++) {
+            StringBuilder query = new StringBuilder("SELECT * FROM student WHERE id IN (?");
+            for (int i = 1; i < 1 << bucket; i++) {
+                query.append(",?");
+            }
+            IN_QUERIES[bucket] = query.append(')').toString();
+        }
+    }
+
+    private final int batchSize;
+
+    public StudentServiceImpl() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    public StudentServiceImpl(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1, was " + batchSize);
+        }
+        this.batchSize = batchSize;
+    }
+
     @Override
     public List<Student> getAllStudent() {
-        Connection con = DBConnection.getConnection();
+        Connection con = readConnection();
         //check Connection
         checkConnectivity(con);
         List<Student> allStudent = new ArrayList<>();
         String query = "SELECT * FROM student";
         try (PreparedStatement preparedStatement = con.prepareStatement(query)) {
             ResultSet resultSet = preparedStatement.executeQuery();
+            StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
             while (resultSet.next()) {
-                Student student =  Student.builder()
-                        .id(resultSet.getInt("id"))
-                        .name(resultSet.getString("name"))
-                        .phone("+2"+resultSet.getString("phone"))
-                        .gpa(resultSet.getDouble("gpa"))
-                        .build();
-                allStudent.add(student);
+                allStudent.add(rowMapper.mapRow(resultSet));
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new StudentServiceException("Could not read the students", e);
         } finally {
             try {
                 con.close();
@@ -43,9 +108,51 @@ public class StudentServiceImpl implements StudentService {
         return allStudent;
     }
 
+    @Override
+    public Stream<Student> streamAllStudents() {
+        Connection con = readConnection();
+        //check Connection
+        checkConnectivity(con);
+        String query = "SELECT * FROM student";
+        PreparedStatement preparedStatement = null;
+        try {
+            preparedStatement = con.prepareStatement(query);
+            preparedStatement.setFetchSize(STREAM_FETCH_SIZE);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
+            PreparedStatement statement = preparedStatement;
+            Spliterator<Student> rows = new Spliterators.AbstractSpliterator<Student>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Student> action) {
+                    try {
+                        if (!resultSet.next()) {
+                            return false;
+                        }
+                        action.accept(rowMapper.mapRow(resultSet));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new StudentServiceException("Could not read the next student", e);
+                    }
+                }
+            };
+            return StreamSupport.stream(rows, false).onClose(() -> close(resultSet, statement, con));
+        } catch (SQLException e) {
+            close(null, preparedStatement, con);
+            throw new StudentServiceException("Could not read the students", e);
+        }
+    }
+
+    @Override
+    public void forEachStudent(Consumer<Student> action) {
+        try (Stream<Student> students = streamAllStudents()) {
+            students.forEach(action);
+        }
+    }
+
     @Override
     public Student getStuById(int id) {
-        Connection con = DBConnection.getConnection();
+        Connection con = readConnection();
         //check Connection
         checkConnectivity(con);
         String query = "SELECT * FROM student WHERE id=?";
@@ -54,16 +161,10 @@ public class StudentServiceImpl implements StudentService {
             ResultSet resultSet = preparedStatement.executeQuery();
             if (resultSet.next()) {
 //                Student student = new Student(resultSet.getString("name"), resultSet.getDouble("gpa"), resultSet.getInt("id"), resultSet.getString("phone"));
-                Student student =  Student.builder()
-                        .id(resultSet.getInt("id"))
-                        .name(resultSet.getString("name"))
-                        .phone("+2"+resultSet.getString("phone"))
-                        .gpa(resultSet.getDouble("gpa"))
-                        .build();
-                    return student;
+                return StudentRowMapper.forResultSet(resultSet).mapRow(resultSet);
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new StudentServiceException("Could not read student " + id, e);
         } finally {
             try {
                 con.close();
@@ -74,21 +175,137 @@ public class StudentServiceImpl implements StudentService {
         return null;
     }
 
+    @Override
+    public Map<Integer, Student> getStudentsByIds(Collection<Integer> ids) {
+        // de-duplicated, and already in the order the result map is returned in
+        List<Integer> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Integer, Student> students = new LinkedHashMap<>();
+        if (distinctIds.isEmpty()) {
+            return students;
+        }
+        for (Integer id : distinctIds) {
+            students.put(id, null);
+        }
+        Connection con = readConnection();
+        //check Connection
+        checkConnectivity(con);
+        try {
+            for (int from = 0; from < distinctIds.size(); from += MAX_IN_LIST_SIZE) {
+                List<Integer> chunk = distinctIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, distinctIds.size()));
+                int bucket = 32 - Integer.numberOfLeadingZeros(chunk.size() - 1);
+                try (PreparedStatement preparedStatement = con.prepareStatement(IN_QUERIES[bucket])) {
+                    int parameters = 1 << bucket;
+                    for (int i = 0; i < parameters; i++) {
+                        // pad the list by repeating the last id, duplicates in IN do not change the result
+                        preparedStatement.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    ResultSet resultSet = preparedStatement.executeQuery();
+                    StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
+                    while (resultSet.next()) {
+                        Student student = rowMapper.mapRow(resultSet);
+                        students.put(student.getId(), student);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new StudentServiceException("Could not read students by id", e);
+        } finally {
+            try {
+                con.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        students.values().removeIf(student -> student == null);
+        return students;
+    }
+
+    @Override
+    public StudentPage getStudentPage(int afterId, int pageSize, StudentColumn... columns) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be at least 1, was " + pageSize);
+        }
+        EnumSet<StudentColumn> projection = columns.length == 0
+                ? EnumSet.allOf(StudentColumn.class)
+                : EnumSet.of(StudentColumn.ID, columns);
+        int mask = 0;
+        for (StudentColumn column : projection) {
+            mask |= 1 << column.ordinal();
+        }
+        List<Student> students = new ArrayList<>(pageSize);
+        boolean hasNext = false;
+        Connection con = readConnection();
+        //check Connection
+        checkConnectivity(con);
+        try (PreparedStatement preparedStatement = con.prepareStatement(PAGE_QUERIES[mask])) {
+            preparedStatement.setInt(1, afterId);
+            // one extra row tells whether another page follows
+            preparedStatement.setInt(2, pageSize + 1);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
+            while (resultSet.next()) {
+                if (students.size() == pageSize) {
+                    hasNext = true;
+                    break;
+                }
+                students.add(rowMapper.mapRow(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new StudentServiceException("Could not read the page of students after id " + afterId, e);
+        } finally {
+            try {
+                con.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        int lastId = students.isEmpty() ? afterId : students.get(students.size() - 1).getId();
+        return new StudentPage(students, lastId, hasNext);
+    }
+
+    @Override
+    public List<Student> getStudentsByGpaRange(double minGpa, double maxGpa) {
+        List<Student> students = new ArrayList<>();
+        Connection con = readConnection();
+        //check Connection
+        checkConnectivity(con);
+        String query = "SELECT * FROM student WHERE gpa BETWEEN ? AND ? ORDER BY gpa, id";
+        try (PreparedStatement preparedStatement = con.prepareStatement(query)) {
+            preparedStatement.setDouble(1, minGpa);
+            preparedStatement.setDouble(2, maxGpa);
+            ResultSet resultSet = preparedStatement.executeQuery();
+            StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
+            while (resultSet.next()) {
+                students.add(rowMapper.mapRow(resultSet));
+            }
+        } catch (SQLException e) {
+            throw new StudentServiceException("Could not read students with gpa between " + minGpa + " and " + maxGpa, e);
+        } finally {
+            try {
+                con.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        return students;
+    }
+
     @Override
     public void updateStudent(Student student) {
-        Connection con = DBConnection.getConnection();
+        Connection con = connection();
         //check Connection
         checkConnectivity(con);
         String query = "UPDATE student SET name=?, gpa=? ,phone=? WHERE id=?";
         try (PreparedStatement preparedStatement = con.prepareStatement(query)) {
             preparedStatement.setString(1, student.getStudentName());
             preparedStatement.setDouble(2, student.getGpa());
-            preparedStatement.setString(3, "+2"+student.getPhone());
+            setPhone(preparedStatement, 3, student.getPhone());
             preparedStatement.setInt(4, student.getId());
             preparedStatement.executeUpdate();
 //        preparedStatement.close();
         } catch (SQLException e) {
-            e.printStackTrace();
+            rollback(con, e);
+            throw new StudentServiceException("Could not update student " + student.getId(), e);
         } finally {
             try {
                 con.close();
@@ -100,18 +317,19 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     public void AddStudent(Student student) {
-        Connection con = DBConnection.getConnection();
+        Connection con = connection();
         //check Connection
         checkConnectivity(con);
         String query = "INSERT INTO student (name,gpa,phone) VALUES(?,?,?)";
         try (PreparedStatement preparedStatement = con.prepareStatement(query)) {
             preparedStatement.setString(1, student.getStudentName());
             preparedStatement.setDouble(2, student.getGpa());
-            preparedStatement.setString(3, "+2"+student.getPhone());
+            setPhone(preparedStatement, 3, student.getPhone());
             preparedStatement.execute();
 //        preparedStatement.close();
         } catch (SQLException e) {
-            e.printStackTrace();
+            rollback(con, e);
+            throw new StudentServiceException("Could not add student " + student.getStudentName(), e);
         } finally {
             try {
                 con.close();
@@ -123,7 +341,7 @@ public class StudentServiceImpl implements StudentService {
 
     @Override
     public void deleteStudent(int id) {
-        Connection con = DBConnection.getConnection();
+        Connection con = connection();
         //check Connection
         checkConnectivity(con);
         String query = "DELETE FROM student WHERE id=?";
@@ -131,6 +349,146 @@ public class StudentServiceImpl implements StudentService {
             preparedStatement.setInt(1, id);
             preparedStatement.executeUpdate();
 //        preparedStatement.close();
+        } catch (SQLException e) {
+            rollback(con, e);
+            throw new StudentServiceException("Could not delete student " + id, e);
+        } finally {
+            try {
+                con.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public List<Integer> addStudents(Collection<Student> students) {
+        List<Integer> generatedIds = new ArrayList<>(students.size());
+        String query = "INSERT INTO student (name,gpa,phone) VALUES(?,?,?)";
+        executeBatch(query, students, (preparedStatement, student) -> {
+            preparedStatement.setString(1, student.getStudentName());
+            preparedStatement.setDouble(2, student.getGpa());
+            setPhone(preparedStatement, 3, student.getPhone());
+        }, null, generatedIds);
+        return generatedIds;
+    }
+
+    @Override
+    public void updateStudents(Collection<Student> students) {
+        String query = "UPDATE student SET name=?, gpa=? ,phone=? WHERE id=?";
+        executeBatch(query, students, (preparedStatement, student) -> {
+            preparedStatement.setString(1, student.getStudentName());
+            preparedStatement.setDouble(2, student.getGpa());
+            setPhone(preparedStatement, 3, student.getPhone());
+            preparedStatement.setInt(4, student.getId());
+        }, Student::getId, null);
+    }
+
+    @Override
+    public void deleteStudents(Collection<Integer> ids) {
+        String query = "DELETE FROM student WHERE id=?";
+        executeBatch(query, ids, (preparedStatement, id) -> preparedStatement.setInt(1, id), id -> id, null);
+    }
+
+    // sends items in chunks of batchSize and commits each chunk on its own, so a large load never holds one huge
+    // transaction; the ids of committed items come from idOf, or are the generated keys when generatedIds is given
+    private <T> void executeBatch(String query, Collection<T> items, BatchBinder<T> binder, Function<T, Integer> idOf,
+                                  List<Integer> generatedIds) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Connection con = connection();
+        //check Connection
+        checkConnectivity(con);
+        int keys = generatedIds == null ? Statement.NO_GENERATED_KEYS : Statement.RETURN_GENERATED_KEYS;
+        List<Integer> committedIds = new ArrayList<>(items.size());
+        List<T> chunk = new ArrayList<>(Math.min(batchSize, items.size()));
+        int committed = 0;
+        try (PreparedStatement preparedStatement = con.prepareStatement(query, keys)) {
+            con.setAutoCommit(false);
+            for (T item : items) {
+                chunk.add(item);
+                binder.bind(preparedStatement, item);
+                preparedStatement.addBatch();
+                if (chunk.size() == batchSize) {
+                    commitChunk(con, preparedStatement, chunk, idOf, generatedIds != null, committedIds);
+                    committed += chunk.size();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                commitChunk(con, preparedStatement, chunk, idOf, generatedIds != null, committedIds);
+            }
+        } catch (SQLException e) {
+            rollback(con, e);
+            // inside a unit of work the chunks were only sent, and the failure rolls all of them back
+            if (StudentUnitOfWork.isActive()) {
+                committedIds.clear();
+            }
+            throw new StudentServiceException("Batch of " + items.size() + " failed in items " + committed + ".."
+                    + (committed + chunk.size() - 1) + ", " + committedIds.size() + " items before them were committed",
+                    e, committedIds, new ArrayList<>(chunk));
+        } finally {
+            try {
+                con.setAutoCommit(true);
+                con.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        if (generatedIds != null) {
+            generatedIds.addAll(committedIds);
+        }
+    }
+
+    // ids are only recorded once the commit has succeeded
+    private static <T> void commitChunk(Connection con, PreparedStatement preparedStatement, List<T> chunk,
+                                        Function<T, Integer> idOf, boolean generatedKeys, List<Integer> committedIds)
+            throws SQLException {
+        preparedStatement.executeBatch();
+        List<Integer> ids = new ArrayList<>(chunk.size());
+        if (generatedKeys) {
+            try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                while (keys.next()) {
+                    ids.add(keys.getInt(1));
+                }
+            }
+        } else {
+            for (T item : chunk) {
+                ids.add(idOf.apply(item));
+            }
+        }
+        con.commit();
+        committedIds.addAll(ids);
+    }
+
+    // inside a StudentUnitOfWork this also marks it rollback-only, so its commit() fails instead of keeping the rest
+    private static void rollback(Connection con, SQLException failure) {
+        try {
+            if (!con.getAutoCommit()) {
+                con.rollback();
+            }
+        } catch (SQLException rollbackFailure) {
+            failure.addSuppressed(rollbackFailure);
+        }
+    }
+
+    private static void setPhone(PreparedStatement preparedStatement, int index, Phone phone) throws SQLException {
+        if (phone == null) {
+            preparedStatement.setNull(index, Types.BIGINT);
+        } else {
+            preparedStatement.setLong(index, phone.toE164());
+        }
+    }
+
+    private static void close(ResultSet resultSet, PreparedStatement preparedStatement, Connection con) {
+        try {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            if (preparedStatement != null) {
+                preparedStatement.close();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         } finally {
@@ -142,9 +500,31 @@ public class StudentServiceImpl implements StudentService {
         }
     }
 
+    // binds one item to the parameters of a batched statement
+    private interface BatchBinder<T> {
+        void bind(PreparedStatement preparedStatement, T item) throws SQLException;
+    }
+
     void checkConnectivity(Connection con){
         if(con==null){
-            return;
+            throw new StudentServiceException("No connection to the database", null);
+        }
+    }
+
+    // a borrow that timed out or an unreachable database fails the call
+    private static Connection connection() {
+        try {
+            return DBConnection.getConnection();
+        } catch (SQLException e) {
+            throw new StudentServiceException("Could not get a connection to the database", e);
+        }
+    }
+
+    private static Connection readConnection() {
+        try {
+            return DBConnection.getReadConnection();
+        } catch (SQLException e) {
+            throw new StudentServiceException("Could not get a connection to the database", e);
         }
     }
 }
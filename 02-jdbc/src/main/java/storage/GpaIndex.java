@@ -0,0 +1,159 @@
+package main.java.storage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Secondary index of (gpa, id) pairs kept sorted, for gpa range queries.
+ * <p>
+ * Entries are held in primitive arrays split into blocks of at most {@value #BLOCK_SIZE}, so an insert or removal
+ * shifts entries within one block only; a full block is split in two. Finding a position is a binary search over
+ * the blocks and then within one.
+ */
+public class GpaIndex {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private final List<Block> blocks = new ArrayList<>();
+    private int size;
+
+    public void add(double gpa, int id) {
+        if (blocks.isEmpty()) {
+            Block first = new Block();
+            first.insert(0, gpa, id);
+            blocks.add(first);
+            size++;
+            return;
+        }
+        int blockIndex = Math.min(blockFor(gpa, id), blocks.size() - 1);
+        Block block = blocks.get(blockIndex);
+        if (block.size == BLOCK_SIZE) {
+            Block upper = block.split();
+            blocks.add(blockIndex + 1, upper);
+            if (compare(gpa, id, block.gpas[block.size - 1], block.ids[block.size - 1]) > 0) {
+                block = upper;
+            }
+        }
+        block.insert(block.position(gpa, id), gpa, id);
+        size++;
+    }
+
+    public boolean remove(double gpa, int id) {
+        int blockIndex = blockFor(gpa, id);
+        if (blockIndex == blocks.size()) {
+            return false;
+        }
+        Block block = blocks.get(blockIndex);
+        int index = block.position(gpa, id);
+        if (index == block.size || block.ids[index] != id || Double.compare(block.gpas[index], gpa) != 0) {
+            return false;
+        }
+        block.delete(index);
+        if (block.size == 0) {
+            blocks.remove(blockIndex);
+        }
+        size--;
+        return true;
+    }
+
+    // ids of the entries with minGpa <= gpa <= maxGpa, in gpa and then id order
+    public int[] range(double minGpa, double maxGpa) {
+        int[] ids = new int[16];
+        int count = 0;
+        int blockIndex = blockFor(minGpa, Integer.MIN_VALUE);
+        if (blockIndex == blocks.size()) {
+            return new int[0];
+        }
+        int index = blocks.get(blockIndex).position(minGpa, Integer.MIN_VALUE);
+        for (; blockIndex < blocks.size(); blockIndex++, index = 0) {
+            Block block = blocks.get(blockIndex);
+            for (; index < block.size; index++) {
+                if (!(block.gpas[index] <= maxGpa)) {
+                    return Arrays.copyOf(ids, count);
+                }
+                if (count == ids.length) {
+                    ids = Arrays.copyOf(ids, count << 1);
+                }
+                ids[count++] = block.ids[index];
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        blocks.clear();
+        size = 0;
+    }
+
+    // first block whose last entry is not less than (gpa, id), blocks.size() if there is none
+    private int blockFor(double gpa, int id) {
+        int low = 0;
+        int high = blocks.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            Block block = blocks.get(middle);
+            if (compare(block.gpas[block.size - 1], block.ids[block.size - 1], gpa, id) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(double gpa, int id, double otherGpa, int otherId) {
+        int order = Double.compare(gpa, otherGpa);
+        return order != 0 ? order : Integer.compare(id, otherId);
+    }
+
+    private static final class Block {
+        final double[] gpas = new double[BLOCK_SIZE];
+        final int[] ids = new int[BLOCK_SIZE];
+        int size;
+
+        // first index whose entry is not less than (gpa, id)
+        int position(double gpa, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compare(gpas[middle], ids[middle], gpa, id) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        void insert(int index, double gpa, int id) {
+            System.arraycopy(gpas, index, gpas, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            gpas[index] = gpa;
+            ids[index] = id;
+            size++;
+        }
+
+        void delete(int index) {
+            System.arraycopy(gpas, index + 1, gpas, index, size - index - 1);
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+        }
+
+        // moves the upper half into a new block
+        Block split() {
+            Block upper = new Block();
+            int half = size / 2;
+            upper.size = size - half;
+            System.arraycopy(gpas, half, upper.gpas, 0, upper.size);
+            System.arraycopy(ids, half, upper.ids, 0, upper.size);
+            size = half;
+            return upper;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package main.java.storage;
+
+import java.util.Arrays;
+
+// sorted set of ints in one array; adding ascending values, as new ids are, appends without shifting
+public class SortedIntSet {
+
+    private int[] values = new int[16];
+    private int size;
+
+    public boolean add(int value) {
+        if (size > 0 && value > values[size - 1]) {
+            ensureCapacity();
+            values[size++] = value;
+            return true;
+        }
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // removes the first count values of the array in one pass over the set instead of one shift per value;
+    // sorts that part of the array, returns how many were present
+    public int removeAll(int[] removed, int count) {
+        if (count == 0 || size == 0) {
+            return 0;
+        }
+        Arrays.sort(removed, 0, count);
+        int kept = 0;
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            int value = values[i];
+            while (next < count && removed[next] < value) {
+                next++;
+            }
+            if (next < count && removed[next] == value) {
+                continue;
+            }
+            values[kept++] = value;
+        }
+        int removedCount = size - kept;
+        size = kept;
+        return removedCount;
+    }
+
+    public int get(int index) {
+        return values[index];
+    }
+
+    // index of the first value greater than the given one, size() if there is none
+    public int indexAfter(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void ensureCapacity() {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size << 1);
+        }
+    }
+}
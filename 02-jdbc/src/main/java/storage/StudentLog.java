@@ -0,0 +1,113 @@
+package main.java.storage;
+
+import main.java.model.Student;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Write-ahead log of student changes in a memory-mapped file.
+ * <p>
+ * Each entry is a type byte followed by a student record or an id. An end byte always follows the last entry and
+ * is written before the entry's own type byte, so a write cut short is never replayed. Appends are plain memory
+ * writes: they survive the process dying, and {@link #sync()} forces them to disk to survive the machine dying too.
+ * The file grows by remapping it larger; {@link #reset()} starts it over once a snapshot holds everything in it.
+ */
+public class StudentLog implements AutoCloseable {
+
+    private static final byte END = 0;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int INITIAL_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+
+    public StudentLog(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_SIZE, channel.size()));
+    }
+
+    // applies every complete entry in order and positions the log after the last one
+    public void replay(Consumer<Student> put, IntConsumer delete) {
+        position = 0;
+        while (position < buffer.capacity()) {
+            byte type = buffer.get(position);
+            if (type == PUT) {
+                buffer.position(position + 1);
+                put.accept(StudentRecords.read(buffer));
+            } else if (type == DELETE) {
+                buffer.position(position + 1);
+                delete.accept(buffer.getInt());
+            } else {
+                return;
+            }
+            position = buffer.position();
+        }
+    }
+
+    public void appendPut(Student student) throws IOException {
+        byte[] name = StudentRecords.encodeName(student);
+        int start = reserve(StudentRecords.size(name));
+        StudentRecords.write(buffer, student, name);
+        commit(start, PUT);
+    }
+
+    public void appendDelete(int id) throws IOException {
+        int start = reserve(Integer.BYTES);
+        buffer.putInt(id);
+        commit(start, DELETE);
+    }
+
+    // bytes of entries written since the last reset
+    public int size() {
+        return position;
+    }
+
+    public void sync() {
+        buffer.force();
+    }
+
+    public void reset() {
+        buffer.put(0, END);
+        position = 0;
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    // makes room for the type byte, a payload of the given size and the end byte after it, and positions the buffer at the payload
+    private int reserve(int payloadSize) throws IOException {
+        int start = position;
+        long needed = (long) start + 1 + payloadSize + 1;
+        if (needed > buffer.capacity()) {
+            long capacity = buffer.capacity();
+            while (capacity < needed) {
+                capacity <<= 1;
+            }
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IOException("Student log is full, take a snapshot to reset it");
+            }
+            // both mappings share the page cache, so nothing needs flushing first
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+        buffer.put(start + 1 + payloadSize, END);
+        buffer.position(start + 1);
+        return start;
+    }
+
+    private void commit(int start, byte type) {
+        position = buffer.position();
+        buffer.put(start, type);
+    }
+}
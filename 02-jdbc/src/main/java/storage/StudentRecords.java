@@ -0,0 +1,52 @@
+package main.java.storage;
+
+import main.java.model.Phone;
+import main.java.model.Student;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// binary layout of a student in the log and the snapshot: id, gpa, phone digits (0 for none), name length (-1 for null), UTF-8 name
+final class StudentRecords {
+
+    private static final int FIXED_SIZE = Integer.BYTES + Double.BYTES + Long.BYTES + Short.BYTES;
+
+    private StudentRecords() {
+    }
+
+    static byte[] encodeName(Student student) {
+        String name = student.getStudentName();
+        return name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int size(byte[] name) {
+        return FIXED_SIZE + (name == null ? 0 : name.length);
+    }
+
+    static void write(ByteBuffer buffer, Student student, byte[] name) {
+        if (name != null && name.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Student name is too long to store: " + name.length + " bytes");
+        }
+        buffer.putInt(student.getId());
+        buffer.putDouble(student.getGpa());
+        buffer.putLong(student.getPhone() == null ? 0 : student.getPhone().toE164());
+        buffer.putShort((short) (name == null ? -1 : name.length));
+        if (name != null) {
+            buffer.put(name);
+        }
+    }
+
+    static Student read(ByteBuffer buffer) {
+        int id = buffer.getInt();
+        double gpa = buffer.getDouble();
+        long phone = buffer.getLong();
+        short nameLength = buffer.getShort();
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            buffer.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Student(name, gpa, id, phone == 0 ? null : Phone.fromE164(phone));
+    }
+}
@@ -0,0 +1,71 @@
+package main.java.storage;
+
+import main.java.model.Student;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// full copy of the store on disk: a header with the next id to assign and every student record,
+// written to a temporary file and moved into place
+public final class StudentSnapshot {
+
+    // header of magic, next id and count
+    private static final int MAGIC = 0x53545532;
+    private static final int HEADER_SIZE = Integer.BYTES * 3;
+
+    private StudentSnapshot() {
+    }
+
+    public static void write(Path file, List<Student> students, int nextId) throws IOException {
+        List<byte[]> names = new ArrayList<>(students.size());
+        long size = HEADER_SIZE;
+        for (Student student : students) {
+            byte[] name = StudentRecords.encodeName(student);
+            names.add(name);
+            size += StudentRecords.size(name);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot of " + students.size() + " students does not fit in one mapping");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putInt(nextId);
+            buffer.putInt(students.size());
+            for (int i = 0; i < students.size(); i++) {
+                StudentRecords.write(buffer, students.get(i), names.get(i));
+            }
+            buffer.force();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // returns the next id to assign as recorded in the snapshot, 0 when there is no snapshot yet
+    public static int read(Path file, Consumer<Student> consumer) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException(file + " is not a student snapshot");
+            }
+            int nextId = buffer.getInt();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                consumer.accept(StudentRecords.read(buffer));
+            }
+            return nextId;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package main.java.connection;
+
+import main.java.connection.pool.PoolConfig;
+import main.java.model.Student;
+import main.java.service.AsyncStudentService;
+import main.java.service.StudentService;
+import main.java.service.impl.AsyncStudentServiceImpl;
+import main.java.service.impl.StudentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// primary and replicas are separate in-memory H2 databases, each holding a student 1 named after the database
+class ReplicaRoutingTest {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA_1 = "replica-1";
+    private static final String REPLICA_2 = "replica-2";
+
+    private final StudentService studentService = new StudentServiceImpl();
+
+    @BeforeEach
+    public void createDatabases() throws SQLException {
+        for (String database : Arrays.asList(PRIMARY, REPLICA_1, REPLICA_2)) {
+            try (Connection con = DriverManager.getConnection(url(database)); Statement statement = con.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS student");
+                statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+                statement.execute("INSERT INTO student (name,gpa,phone) VALUES('" + database + "',3.0,201128673348)");
+            }
+        }
+        DBConnection.configure(config(PRIMARY));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void withoutReplicas_ReadsGoToPrimary() {
+        assertEquals(PRIMARY, studentService.getStuById(1).getStudentName());
+    }
+
+    @Test
+    public void withReplica_ReadsGoToReplicaAndWritesToPrimary() throws SQLException {
+        DBConnection.configureReplicas(Collections.singletonList(config(REPLICA_1)), new RoundRobinRoutingPolicy(), 0);
+
+        assertEquals(REPLICA_1, studentService.getStuById(1).getStudentName());
+        assertEquals(REPLICA_1, studentService.getAllStudent().get(0).getStudentName());
+
+        studentService.AddStudent(Student.builder().name("new").gpa(2.5).phone("01128673348").build());
+        assertEquals(2, countStudents(PRIMARY));
+        assertEquals(1, countStudents(REPLICA_1));
+    }
+
+    @Test
+    public void withRoundRobin_ReadsAlternateBetweenReplicas() {
+        DBConnection.configureReplicas(Arrays.asList(config(REPLICA_1), config(REPLICA_2)), new RoundRobinRoutingPolicy(), 0);
+
+        List<String> servedBy = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            servedBy.add(studentService.getStuById(1).getStudentName());
+        }
+        assertEquals(Arrays.asList(REPLICA_1, REPLICA_2, REPLICA_1, REPLICA_2), servedBy);
+    }
+
+    @Test
+    public void withLeastLoaded_ReadsAvoidBusyReplica() throws SQLException {
+        DBConnection.configureReplicas(Arrays.asList(config(REPLICA_1), config(REPLICA_2)), new LeastLoadedRoutingPolicy(), 0);
+
+        // both idle, the first replica wins the tie and stays busy while we read
+        try (Connection busy = DBConnection.getReadConnection()) {
+            assertTrue(busy.getMetaData().getURL().contains(REPLICA_1));
+            assertEquals(REPLICA_2, studentService.getStuById(1).getStudentName());
+        }
+        assertEquals(REPLICA_1, studentService.getStuById(1).getStudentName());
+    }
+
+    @Test
+    public void afterWrite_ReadsStayOnPrimaryDuringWindow() throws InterruptedException {
+        DBConnection.configureReplicas(Collections.singletonList(config(REPLICA_1)), new RoundRobinRoutingPolicy(), 300);
+
+        studentService.updateStudent(Student.builder().id(1).name("updated").gpa(3.5).phone("01128673348").build());
+        assertEquals("updated", studentService.getStuById(1).getStudentName());
+
+        Thread.sleep(400);
+        assertEquals(REPLICA_1, studentService.getStuById(1).getStudentName());
+    }
+
+    @Test
+    public void insideUnitOfWork_ReadsGoToPrimary() throws SQLException {
+        DBConnection.configureReplicas(Collections.singletonList(config(REPLICA_1)), new RoundRobinRoutingPolicy(), 0);
+
+        try (StudentUnitOfWork unitOfWork = StudentUnitOfWork.begin()) {
+            assertEquals(PRIMARY, studentService.getStuById(1).getStudentName());
+            unitOfWork.commit();
+        }
+    }
+
+    @Test
+    public void afterWrite_AsyncReadsOfTheSameCallerStayOnPrimary() throws Exception {
+        DBConnection.configureReplicas(Collections.singletonList(config(REPLICA_1)), new RoundRobinRoutingPolicy(), 5_000);
+
+        try (AsyncStudentService async = new AsyncStudentServiceImpl(studentService, Executors.newCachedThreadPool())) {
+            async.updateStudent(Student.builder().id(1).name("updated").gpa(3.5).phone("01128673348").build())
+                    .get(5, TimeUnit.SECONDS);
+            // the write ran on another thread, the window is still this caller's
+            assertEquals("updated", studentService.getStuById(1).getStudentName());
+            assertEquals("updated", async.getStuById(1).get(5, TimeUnit.SECONDS).getStudentName());
+            // a caller that wrote nothing reads from the replica
+            assertEquals(REPLICA_1, DBConnection.callInSession(new ReadYourWritesSession(),
+                    () -> studentService.getStuById(1).getStudentName()));
+        }
+    }
+
+    @Test
+    public void whileWriteConnectionIsOpen_WindowHasNotStarted() {
+        DBConnection.configureReplicas(Collections.singletonList(config(REPLICA_1)), new RoundRobinRoutingPolicy(), 200);
+
+        DBConnection.callInSession(new ReadYourWritesSession(), () -> {
+            try (Connection write = DBConnection.getConnection()) {
+                assertEquals(REPLICA_1, studentService.getStuById(1).getStudentName());
+                Thread.sleep(300);
+            } catch (SQLException | InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            // counted from the return of the connection, not from when it was borrowed
+            assertEquals(PRIMARY, studentService.getStuById(1).getStudentName());
+            return null;
+        });
+    }
+
+    private static PoolConfig config(String database) {
+        return PoolConfig.builder()
+                .poolName(database)
+                .url(url(database))
+                .minIdle(0)
+                .maxSize(2)
+                .build();
+    }
+
+    private static String url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    private static int countStudents(String database) throws SQLException {
+        try (Connection con = DriverManager.getConnection(url(database)); Statement statement = con.createStatement()) {
+            ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM student");
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
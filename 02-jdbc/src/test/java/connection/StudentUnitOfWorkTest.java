@@ -0,0 +1,110 @@
+package main.java.connection;
+
+import main.java.connection.pool.PoolConfig;
+import main.java.model.Student;
+import main.java.service.StudentService;
+import main.java.service.StudentServiceException;
+import main.java.service.impl.StudentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// student 1 is committed before every test
+class StudentUnitOfWorkTest {
+
+    private static final String URL = "jdbc:h2:mem:unit-of-work;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final StudentService studentService = new StudentServiceImpl();
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+            statement.execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348)");
+        }
+        DBConnection.configure(PoolConfig.builder().poolName("unit-of-work").url(URL).minIdle(0).maxSize(2).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenCommitted_EveryCallIsPersistedTogether() throws SQLException {
+        try (StudentUnitOfWork unitOfWork = StudentUnitOfWork.begin()) {
+            studentService.AddStudent(student(0, "mona"));
+            studentService.updateStudent(student(1, "ahmed ali"));
+            assertEquals(1, countStudents());
+            unitOfWork.commit();
+        }
+        assertEquals(2, countStudents());
+        assertEquals("ahmed ali", studentService.getStuById(1).getStudentName());
+    }
+
+    @Test
+    public void whenClosedWithoutCommit_NothingIsPersisted() throws SQLException {
+        try (StudentUnitOfWork ignored = StudentUnitOfWork.begin()) {
+            studentService.AddStudent(student(0, "mona"));
+            studentService.deleteStudent(1);
+        }
+        assertFalse(StudentUnitOfWork.isActive());
+        assertEquals(1, countStudents());
+    }
+
+    @Test
+    public void whenOneStatementFails_CommitThrowsAndNothingIsPersisted() throws SQLException {
+        try (StudentUnitOfWork unitOfWork = StudentUnitOfWork.begin()) {
+            studentService.AddStudent(student(0, "mona"));
+            // too long for the name column
+            assertThrows(StudentServiceException.class, () -> studentService.updateStudent(student(1, "a name far too long")));
+            studentService.deleteStudent(1);
+
+            assertThrows(SQLException.class, unitOfWork::commit);
+        }
+        assertEquals(1, countStudents());
+        assertEquals("ahmed", studentService.getStuById(1).getStudentName());
+    }
+
+    @Test
+    public void whenCommitted_AfterCommitActionsRunOnlyThen() throws SQLException {
+        List<String> actions = new ArrayList<>();
+        try (StudentUnitOfWork unitOfWork = StudentUnitOfWork.begin()) {
+            StudentUnitOfWork.afterCommit(() -> actions.add("committed"));
+            assertTrue(actions.isEmpty());
+            unitOfWork.commit();
+        }
+        try (StudentUnitOfWork ignored = StudentUnitOfWork.begin()) {
+            StudentUnitOfWork.afterCommit(() -> actions.add("rolled back"));
+        }
+        StudentUnitOfWork.afterCommit(() -> actions.add("no unit of work"));
+        assertEquals(Arrays.asList("committed", "no unit of work"), actions);
+    }
+
+    private static Student student(int id, String name) {
+        return Student.builder().id(id).name(name).gpa(3.0).phone("01128673348").build();
+    }
+
+    private static int countStudents() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM student")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package main.java.connection.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// every pool talks to its own in-memory H2 database
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    public void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    public void whenAllConnectionsAreBorrowed_BorrowTimesOut() throws SQLException {
+        pool = new ConnectionPool(config("borrow-timeout").maxSize(2).borrowTimeoutMillis(100).build());
+        try (Connection first = pool.getConnection(); Connection second = pool.getConnection()) {
+            long start = System.nanoTime();
+            assertThrows(SQLTimeoutException.class, pool::getConnection);
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+            assertEquals(2, pool.getActiveConnections());
+        }
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(2, pool.getIdleConnections());
+    }
+
+    @Test
+    public void whenBorrowersRaceTheHousekeeper_PoolNeverExceedsMaxSize() throws Exception {
+        int maxSize = 3;
+        pool = new ConnectionPool(config("max-size").minIdle(maxSize).maxSize(maxSize)
+                .validationBypassMillis(0).housekeepingIntervalMillis(1).build());
+        AtomicInteger highest = new AtomicInteger();
+        ExecutorService borrowers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(borrowers.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        try (Connection con = pool.getConnection()) {
+                            highest.accumulateAndGet(pool.getTotalConnections(), Math::max);
+                            // some returns are destroyed so the housekeeper keeps refilling
+                            if (i % 10 == 0) {
+                                con.unwrap(Connection.class).close();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            borrowers.shutdownNow();
+        }
+        assertTrue(highest.get() <= maxSize, "pool grew to " + highest.get());
+        assertTrue(pool.getTotalConnections() <= maxSize);
+    }
+
+    @Test
+    public void whenConnectionsSitIdle_TheyAreEvictedDownToMinIdle() throws SQLException {
+        pool = new ConnectionPool(config("idle-eviction").minIdle(1).maxSize(3)
+                .idleTimeoutMillis(50).housekeepingIntervalMillis(10).build());
+        Connection first = pool.getConnection();
+        Connection second = pool.getConnection();
+        Connection third = pool.getConnection();
+        first.close();
+        second.close();
+        third.close();
+        assertEquals(3, pool.getTotalConnections());
+
+        awaitTrue(() -> pool.getTotalConnections() == 1);
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    public void whenConnectionIsHeldPastThreshold_LeakIsReportedOnce() throws SQLException {
+        PrintStream err = System.err;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(captured, true));
+        try {
+            pool = new ConnectionPool(config("leak-detection").leakDetectionThresholdMillis(50)
+                    .housekeepingIntervalMillis(10).build());
+            try (Connection ignored = pool.getConnection()) {
+                awaitTrue(() -> captured.toString().contains("possible leak"));
+                sleep(50);
+            }
+        } finally {
+            System.setErr(err);
+        }
+        String output = captured.toString();
+        assertEquals(output.indexOf("possible leak"), output.lastIndexOf("possible leak"));
+        assertTrue(output.contains("Connection borrowed from pool leak-detection here"));
+        assertTrue(output.contains("Previously reported leaked connection was returned"));
+    }
+
+    @Test
+    public void whenBorrowerLeavesTransactionOpen_ReturnRollsBackAndRestoresAutoCommit() throws SQLException {
+        pool = new ConnectionPool(config("reset-on-return").maxSize(1).build());
+        try (Connection con = pool.getConnection(); Statement statement = con.createStatement()) {
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY, name VARCHAR(15))");
+        }
+        try (Connection con = pool.getConnection(); Statement statement = con.createStatement()) {
+            con.setAutoCommit(false);
+            statement.executeUpdate("INSERT INTO student VALUES(1,'uncommitted')");
+        }
+        try (Connection con = pool.getConnection(); Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM student")) {
+            assertTrue(con.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    public void whenHandleIsClosed_ItNoLongerReachesTheConnection() throws SQLException {
+        pool = new ConnectionPool(config("closed-handle").maxSize(1).build());
+        Connection con = pool.getConnection();
+        con.close();
+        assertTrue(con.isClosed());
+        assertThrows(SQLException.class, con::createStatement);
+        try (Connection next = pool.getConnection()) {
+            assertFalse(next.isClosed());
+        }
+    }
+
+    private static PoolConfigBuilder config(String database) {
+        return PoolConfig.builder()
+                .poolName(database)
+                .url("jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .minIdle(0)
+                .maxSize(2);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5s");
+            sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+}
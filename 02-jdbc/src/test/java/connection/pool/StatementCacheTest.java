@@ -0,0 +1,133 @@
+package main.java.connection.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// a single connection with room for two cached statements, so every test sees the same physical connection
+class StatementCacheTest {
+
+    private static final String BY_ID = "SELECT name FROM student WHERE id = ?";
+    private static final String BY_NAME = "SELECT id FROM student WHERE name = ?";
+    private static final String COUNT = "SELECT COUNT(*) FROM student";
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void createPool() throws SQLException {
+        pool = new ConnectionPool(PoolConfig.builder()
+                .poolName("statement-cache")
+                .url("jdbc:h2:mem:statement-cache;MODE=MySQL;DB_CLOSE_DELAY=-1")
+                .minIdle(0)
+                .maxSize(1)
+                .statementCacheSize(2)
+                .build());
+        try (Connection con = pool.getConnection(); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY, name VARCHAR(15))");
+            statement.execute("INSERT INTO student VALUES(1,'ahmed'),(2,'mona')");
+        }
+    }
+
+    @AfterEach
+    public void closePool() {
+        pool.close();
+    }
+
+    @Test
+    public void whenSameSqlIsPreparedAgain_CachedStatementIsReused() throws SQLException {
+        PreparedStatement first;
+        try (Connection con = pool.getConnection(); PreparedStatement statement = con.prepareStatement(BY_ID)) {
+            first = statement.unwrap(PreparedStatement.class);
+        }
+        try (Connection con = pool.getConnection(); PreparedStatement statement = con.prepareStatement(BY_ID)) {
+            assertSame(first, statement.unwrap(PreparedStatement.class));
+        }
+        assertEquals(1, pool.getStatementCacheStats().getHits());
+        assertEquals(1, pool.getStatementCacheStats().getMisses());
+    }
+
+    @Test
+    public void whenSameSqlIsOpenTwice_EachHandleGetsItsOwnStatement() throws SQLException {
+        try (Connection con = pool.getConnection();
+             PreparedStatement first = con.prepareStatement(BY_ID);
+             PreparedStatement second = con.prepareStatement(BY_ID)) {
+            assertNotSame(first.unwrap(PreparedStatement.class), second.unwrap(PreparedStatement.class));
+        }
+    }
+
+    @Test
+    public void whenCacheIsFull_LeastRecentlyUsedStatementIsClosed() throws SQLException {
+        PreparedStatement byId;
+        try (Connection con = pool.getConnection()) {
+            try (PreparedStatement statement = con.prepareStatement(BY_ID)) {
+                byId = statement.unwrap(PreparedStatement.class);
+            }
+            con.prepareStatement(BY_NAME).close();
+            con.prepareStatement(COUNT).close();
+        }
+        assertTrue(byId.isClosed());
+        assertEquals(1, pool.getStatementCacheStats().getEvictions());
+    }
+
+    @Test
+    public void whenHandleIsClosed_ParametersAreClearedAndHandleIsDead() throws SQLException {
+        try (Connection con = pool.getConnection()) {
+            PreparedStatement statement = con.prepareStatement(BY_ID);
+            statement.setInt(1, 1);
+            statement.close();
+            assertThrows(SQLException.class, statement::executeQuery);
+
+            try (PreparedStatement reused = con.prepareStatement(BY_ID)) {
+                assertThrows(SQLException.class, reused::executeQuery);
+            }
+        }
+    }
+
+    @Test
+    public void whenQueryRanThroughExecute_ItsResultSetIsClosedOnCheckin() throws SQLException {
+        ResultSet fromExecute;
+        ResultSet fromExecuteQuery;
+        try (Connection con = pool.getConnection()) {
+            try (PreparedStatement statement = con.prepareStatement(BY_ID)) {
+                statement.setInt(1, 1);
+                assertTrue(statement.execute());
+                fromExecute = statement.getResultSet();
+                assertTrue(fromExecute.next());
+            }
+            try (PreparedStatement statement = con.prepareStatement(BY_NAME)) {
+                statement.setString(1, "mona");
+                fromExecuteQuery = statement.executeQuery();
+            }
+        }
+        assertTrue(fromExecute.isClosed());
+        assertTrue(fromExecuteQuery.isClosed());
+    }
+
+    @Test
+    public void whenConnectionIsClosed_OpenStatementsGoBackToTheCache() throws SQLException {
+        PreparedStatement physical;
+        try (Connection con = pool.getConnection()) {
+            PreparedStatement statement = con.prepareStatement(COUNT);
+            physical = statement.unwrap(PreparedStatement.class);
+            statement.executeQuery();
+        }
+        assertFalse(physical.isClosed());
+        try (Connection con = pool.getConnection(); PreparedStatement statement = con.prepareStatement(COUNT)) {
+            assertSame(physical, statement.unwrap(PreparedStatement.class));
+        }
+    }
+}
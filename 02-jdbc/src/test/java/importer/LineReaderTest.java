@@ -0,0 +1,60 @@
+package main.java.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// region and buffer sizes of a few bytes put every line across at least one boundary, the arabic name splits inside a character
+class LineReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void whenLinesCrossMappedRegions_TheyAreJoined() throws IOException, InterruptedException {
+        Path file = write("ahmed,3.0,01128673348\n\u0645\u0646\u0649,3.5,01128673349\n\nomar,2.5,01128673350");
+        for (long regionSize : new long[]{1, 3, 7, 64}) {
+            assertEquals(Arrays.asList("ahmed,3.0,01128673348", "\u0645\u0646\u0649,3.5,01128673349", "", "omar,2.5,01128673350"),
+                    read(file, new LineReader(regionSize, 64), true));
+        }
+    }
+
+    @Test
+    public void whenLinesCrossReadBuffers_TheyAreJoined() throws IOException, InterruptedException {
+        Path file = write("ahmed,3.0,01128673348\n\u0645\u0646\u0649,3.5,01128673349\n\nomar,2.5,01128673350\n");
+        for (int bufferSize : new int[]{1, 3, 7, 64}) {
+            assertEquals(Arrays.asList("ahmed,3.0,01128673348", "\u0645\u0646\u0649,3.5,01128673349", "", "omar,2.5,01128673350"),
+                    read(file, new LineReader(64, bufferSize), false));
+        }
+    }
+
+    @Test
+    public void whenLinesEndWithCrlf_CarriageReturnsAreDropped() throws IOException, InterruptedException {
+        Path file = write("name,gpa,phone\r\nahmed,3.0,01128673348\r\n\r\nmona,3.5,01128673349\r\n");
+        List<String> expected = Arrays.asList("name,gpa,phone", "ahmed,3.0,01128673348", "", "mona,3.5,01128673349");
+        // a size of 16 ends the first buffer between the '\r' and the '\n'
+        for (int size : new int[]{2, 15, 16, 1024}) {
+            assertEquals(expected, read(file, new LineReader(size, size), true));
+            assertEquals(expected, read(file, new LineReader(size, size), false));
+        }
+    }
+
+    private Path write(String text) throws IOException {
+        return Files.write(directory.resolve("students.csv"), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> read(Path file, LineReader reader, boolean memoryMapped) throws IOException, InterruptedException {
+        List<String> lines = new ArrayList<>();
+        reader.read(file, memoryMapped, lines::add);
+        return lines;
+    }
+}
@@ -0,0 +1,155 @@
+package main.java.importer;
+
+import main.java.model.Phone;
+import main.java.model.Student;
+import main.java.service.StudentServiceException;
+import main.java.service.impl.InMemoryStudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// rejected rows are reported on System.err, which every test captures
+class StudentImporterTest {
+
+    @TempDir
+    Path directory;
+
+    private final ByteArrayOutputStream rejects = new ByteArrayOutputStream();
+    private PrintStream err;
+
+    @BeforeEach
+    public void captureRejects() {
+        err = System.err;
+        System.setErr(new PrintStream(rejects, true));
+    }
+
+    @AfterEach
+    public void restoreErr() {
+        System.setErr(err);
+    }
+
+    @Test
+    public void whenNameIsQuoted_DoubledQuotesAreUnescaped() {
+        Student student = StudentImporter.parseLine("\"o\"\"brien, a\",3.5,01128673348");
+        assertEquals("o\"brien, a", student.getStudentName());
+        assertEquals(3.5, student.getGpa());
+        assertEquals(Phone.of("+201128673348"), student.getPhone());
+        assertEquals("ahmed, ali", StudentImporter.parseLine("ahmed, ali,3.0,01128673348").getStudentName());
+        assertNull(StudentImporter.parseLine("ahmed,01128673348"));
+        assertNull(StudentImporter.parseLine("ahmed,good,01128673348"));
+    }
+
+    @Test
+    public void whenRowsAreMalformedOrInvalid_TheyAreRejectedAndTheRestWritten() throws IOException, InterruptedException {
+        Path file = write("name,gpa,phone\r\n"
+                + "ahmed,3.0,01128673348\r\n"
+                + "not a student\r\n"
+                + "\"mona \"\"m\"\"\",3.5,+201128673349\r\n"
+                + "a name far too long,2.0,01128673350\r\n"
+                + "omar,2.5,no phone\r\n"
+                + "\r\n"
+                + "sara,-1,01128673351\r\n"
+                + "ali,3.9,00201128673352");
+        try (InMemoryStudentService store = new InMemoryStudentService()) {
+            ImportProgress progress = importer(store, false).importFile(file);
+
+            assertEquals(8, progress.getLinesRead());
+            assertEquals(6, progress.getParsed());
+            assertEquals(4, progress.getRejected());
+            assertEquals(3, progress.getWritten());
+            assertEquals(3, store.size());
+            List<Student> students = store.getAllStudent();
+            assertTrue(students.stream().anyMatch(student -> student.getStudentName().equals("mona \"m\"")));
+        }
+        String report = new String(rejects.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(report.contains("Rejected line 3 (malformed line): not a student"), report);
+        assertTrue(report.contains("(name must have 1 to 15 characters)"), report);
+        assertTrue(report.contains("(phone must be a national or international phone number)"), report);
+        assertTrue(report.contains("(gpa must be a non-negative number)"), report);
+    }
+
+    @Test
+    public void whenFileIsMapped_EveryLineIsImported() throws IOException, InterruptedException {
+        StringBuilder text = new StringBuilder("name,gpa,phone\n");
+        for (int i = 0; i < 1_000; i++) {
+            text.append("s").append(i).append(",3.0,0112867").append(String.format("%04d", i)).append('\n');
+        }
+        try (InMemoryStudentService store = new InMemoryStudentService()) {
+            ImportProgress progress = importer(store, true).importFile(write(text.toString()));
+            assertEquals(1_000, progress.getWritten());
+            assertEquals(0, progress.getRejected());
+            assertEquals(1_000, store.size());
+        }
+    }
+
+    @Test
+    public void whenWriterFails_ImportFailsAndTheOtherStagesStop() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            text.append("s").append(i).append(",3.0,01128673348\n");
+        }
+        Path file = write(text.toString());
+        // a queue of one chunk leaves the reader blocked on a full queue when the writer dies
+        ImportConfig config = ImportConfig.builder().skipHeader(false).parserThreads(2).linesPerChunk(10)
+                .queueCapacity(1).batchSize(10).progressIntervalMillis(0).build();
+        try (InMemoryStudentService store = new FailingStudentService()) {
+            IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(IllegalStateException.class, () -> new StudentImporter(store, config).importFile(file)));
+            assertInstanceOf(StudentServiceException.class, failure.getCause());
+        }
+        assertFalse(importThreadsAlive());
+    }
+
+    private static StudentImporter importer(InMemoryStudentService store, boolean memoryMapped) {
+        return new StudentImporter(store, ImportConfig.builder().memoryMapped(memoryMapped).parserThreads(2)
+                .linesPerChunk(2).queueCapacity(2).batchSize(2).progressIntervalMillis(0).build());
+    }
+
+    private Path write(String text) throws IOException {
+        return Files.write(directory.resolve("students.csv"), text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // the stages are interrupted on failure, give them a moment to return
+    private static boolean importThreadsAlive() {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("student-import-")) {
+                try {
+                    thread.join(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (thread.isAlive()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class FailingStudentService extends InMemoryStudentService {
+
+        @Override
+        public List<Integer> addStudents(Collection<Student> students) {
+            throw new StudentServiceException("Batch failed", null);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package main.java.mapper;
+
+import main.java.model.Phone;
+import main.java.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// student 1 with every column set and student 2 without a phone
+class StudentRowMapperTest {
+
+    private static final String URL = "jdbc:h2:mem:row-mapper;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+            statement.execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348),('mona',3.5,NULL)");
+        }
+    }
+
+    @Test
+    public void whenAllColumnsAreSelected_EveryFieldIsMapped() throws SQLException {
+        Student student = first("SELECT * FROM student ORDER BY id");
+        assertEquals(1, student.getId());
+        assertEquals("ahmed", student.getStudentName());
+        assertEquals(3.0, student.getGpa());
+        assertEquals(Phone.fromE164(201128673348L), student.getPhone());
+    }
+
+    @Test
+    public void whenColumnsAreProjected_MissingOnesKeepTheirDefaults() throws SQLException {
+        Student student = first("SELECT gpa, id FROM student ORDER BY id");
+        assertEquals(1, student.getId());
+        assertEquals(3.0, student.getGpa());
+        assertNull(student.getStudentName());
+        assertNull(student.getPhone());
+
+        Student nameOnly = first("SELECT name FROM student ORDER BY id");
+        assertEquals(0, nameOnly.getId());
+        assertEquals("ahmed", nameOnly.getStudentName());
+        assertEquals(0, nameOnly.getGpa());
+    }
+
+    @Test
+    public void whenColumnsAreReorderedOrAliased_TheyAreFoundByLabel() throws SQLException {
+        Student student = first("SELECT phone AS PHONE, name AS Name, id FROM student ORDER BY id");
+        assertEquals(1, student.getId());
+        assertEquals("ahmed", student.getStudentName());
+        assertEquals(Phone.fromE164(201128673348L), student.getPhone());
+    }
+
+    @Test
+    public void whenPhoneIsNull_ItStaysNullOnEveryRow() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, phone FROM student ORDER BY id DESC")) {
+            StudentRowMapper rowMapper = StudentRowMapper.forResultSet(resultSet);
+            resultSet.next();
+            assertNull(rowMapper.mapRow(resultSet).getPhone());
+            resultSet.next();
+            assertEquals(Phone.fromE164(201128673348L), rowMapper.mapRow(resultSet).getPhone());
+        }
+    }
+
+    private static Student first(String query) throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return StudentRowMapper.forResultSet(resultSet).mapRow(resultSet);
+        }
+    }
+}
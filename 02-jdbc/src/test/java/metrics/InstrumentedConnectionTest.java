@@ -0,0 +1,119 @@
+package main.java.metrics;
+
+import main.java.connection.DBConnection;
+import main.java.connection.pool.PoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// students 1 to 3 are committed before every test, and DBConnection reports to a fresh JdbcMetrics
+class InstrumentedConnectionTest {
+
+    private static final String URL = "jdbc:h2:mem:instrumented;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String SELECT = "SELECT id FROM student WHERE gpa >= ?";
+    private static final String UPDATE = "UPDATE student SET gpa = gpa + 0.1 WHERE gpa >= ?";
+    private static final String INSERT = "INSERT INTO student (name,gpa,phone) VALUES(?,3.0,201128673348)";
+
+    private final JdbcMetrics metrics = new JdbcMetrics();
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+            statement.execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348),"
+                    + "('mona',3.5,201128673349),('omar',2.5,201128673350)");
+        }
+        DBConnection.configure(PoolConfig.builder().poolName("instrumented").url(URL).minIdle(0).maxSize(2).build());
+        DBConnection.setListener(metrics);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.setListener(null);
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenQueryIsRead_ExecutionsAndRowsAreCounted() throws SQLException {
+        try (Connection con = DBConnection.getConnection(); PreparedStatement ps = con.prepareStatement(SELECT)) {
+            assertInstanceOf(InstrumentedConnection.class, con);
+            assertSame(con, ps.getConnection());
+            ps.setDouble(1, 3.0);
+            drain(ps.executeQuery());
+            // the rows of the first result set are reported when the next execution starts
+            ps.setDouble(1, 0);
+            drain(ps.executeQuery());
+        }
+        QueryStats stats = stats(SELECT);
+        assertEquals(2, stats.getExecutions());
+        assertEquals(5, stats.getRows());
+        assertEquals(0, stats.getErrors());
+        assertEquals(1, metrics.getConnectionsAcquired());
+    }
+
+    @Test
+    public void whenStatementChangesRows_UpdateCountsAreRecordedForEveryExecuteVariant() throws SQLException {
+        try (Connection con = DBConnection.getConnection(); PreparedStatement ps = con.prepareStatement(UPDATE)) {
+            ps.setDouble(1, 3.0);
+            assertEquals(2, ps.executeUpdate());
+            ps.setDouble(1, 0);
+            assertFalse(ps.execute());
+        }
+        try (Connection con = DBConnection.getConnection(); PreparedStatement ps = con.prepareStatement(INSERT)) {
+            for (String name : new String[]{"sara", "ali"}) {
+                ps.setString(1, name);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        QueryStats update = stats(UPDATE);
+        assertEquals(2, update.getExecutions());
+        assertEquals(5, update.getRows());
+        assertEquals(2, stats(INSERT).getRows());
+        assertEquals(3, metrics.getStatementExecutions());
+        assertEquals(7, metrics.getRowsProcessed());
+    }
+
+    @Test
+    public void whenStatementFails_ErrorIsRecordedAndRethrown() throws SQLException {
+        try (Connection con = DBConnection.getConnection(); PreparedStatement ps = con.prepareStatement(INSERT)) {
+            ps.setString(1, "a name far too long");
+            assertThrows(SQLException.class, ps::executeUpdate);
+            assertThrows(SQLException.class, ps::execute);
+        }
+        QueryStats stats = stats(INSERT);
+        assertEquals(2, stats.getExecutions());
+        assertEquals(2, stats.getErrors());
+        assertEquals(0, stats.getRows());
+        assertEquals(2, metrics.getStatementErrors());
+    }
+
+    private QueryStats stats(String sql) {
+        for (QueryStats stats : metrics.getStatementStats()) {
+            if (stats.getSql().equals(sql)) {
+                return stats;
+            }
+        }
+        throw new AssertionError("Nothing recorded for " + sql);
+    }
+
+    private static void drain(ResultSet resultSet) throws SQLException {
+        while (resultSet.next()) {
+            // only counted
+        }
+    }
+}
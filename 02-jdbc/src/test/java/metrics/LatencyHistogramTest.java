@@ -0,0 +1,63 @@
+package main.java.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    public void whenValueIsSmall_EveryNanosecondHasItsOwnBucket() {
+        for (long value = 0; value < 64; value++) {
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.highestValueIn((int) value));
+        }
+    }
+
+    @Test
+    public void whenValueIsLarge_ItsBucketHoldsItWithinThreePercent() {
+        for (long value = 64; value < 1L << 41; value = value * 3 / 2 + 1) {
+            int index = LatencyHistogram.indexOf(value);
+            long highest = LatencyHistogram.highestValueIn(index);
+            assertTrue(highest >= value, value + " above its bucket " + highest);
+            assertTrue(highest - value <= value / 32, value + " too far from its bucket " + highest);
+            // the bucket below ends before the value
+            assertTrue(LatencyHistogram.highestValueIn(index - 1) < value);
+        }
+        // bucket edges: 64 starts the first two-nanosecond bucket, 127 ends the last one
+        assertEquals(65, LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(64)));
+        assertEquals(127, LatencyHistogram.highestValueIn(LatencyHistogram.indexOf(126)));
+        assertEquals(LatencyHistogram.indexOf(128) - 1, LatencyHistogram.indexOf(127));
+    }
+
+    @Test
+    public void whenValueIsBeyondTheRange_ItLandsInTheLastBucket() {
+        int last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertEquals(last, LatencyHistogram.indexOf(1L << 50));
+        assertTrue(LatencyHistogram.indexOf((1L << 42) - 1) <= last);
+    }
+
+    @Test
+    public void whenValuesAreRecorded_PercentilesFollowTheirBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(99));
+        for (long value = 1; value <= 100; value++) {
+            histogram.record(value * 1_000);
+        }
+        histogram.record(-5);
+
+        assertEquals(101, histogram.getCount());
+        assertEquals(100_000, histogram.getMaxNanos());
+        assertEquals(5_050_000 / 101.0, histogram.getMeanNanos(), 0.001);
+        assertEquals(0, histogram.getPercentileNanos(0));
+        assertWithinBucket(50_000, histogram.getPercentileNanos(50));
+        assertWithinBucket(99_000, histogram.getPercentileNanos(99));
+        // capped at the largest value recorded rather than the end of its bucket
+        assertEquals(100_000, histogram.getPercentileNanos(100));
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected && actual - expected <= expected / 32, "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,123 @@
+package main.java.migration;
+
+import main.java.connection.DBConnection;
+import main.java.connection.pool.PoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// H2 cannot run the combined DROP COLUMN/CHANGE COLUMN, so the tests stop at the swap and finish it the way a resumed run would
+class PhoneMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:phone-migration;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final PhoneMigration migration = new PhoneMigration();
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        execute("DROP TABLE IF EXISTS student");
+        execute("DROP TABLE IF EXISTS phone_migration_rejects");
+        DBConnection.configure(PoolConfig.builder().poolName("phone-migration").url(URL).minIdle(0).maxSize(2).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenPhonesAreText_EveryPageIsConvertedAndUnreadableOnesAreRejected() throws SQLException {
+        execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone VARCHAR(32))");
+        execute("CREATE INDEX idx_phone ON student (phone)");
+        // more than one page of 500 rows
+        StringBuilder insert = new StringBuilder("INSERT INTO student (name,gpa,phone) VALUES");
+        for (int i = 0; i < 600; i++) {
+            insert.append(i == 0 ? "" : ",").append("('s").append(i).append("',3.0,'+2+201128673348')");
+        }
+        execute(insert.toString());
+        execute("INSERT INTO student (id,name,gpa,phone) VALUES(1001,'national',3.0,'0112 867 3348'),"
+                + "(1002,'bare',3.0,'1128673348'),(1003,'unknown',3.0,'n/a'),(1004,'empty',3.0,''),(1005,'none',3.0,NULL)");
+
+        assertThrows(SQLException.class, migration::migrate);
+
+        Map<Integer, Long> converted = query("SELECT id, phone_e164 FROM student WHERE id > 1000 ORDER BY id");
+        assertEquals(201128673348L, converted.get(1001));
+        assertEquals(201128673348L, converted.get(1002));
+        assertNull(converted.get(1003));
+        assertNull(converted.get(1005));
+        assertEquals(600, query("SELECT id, phone_e164 FROM student WHERE phone_e164 = 201128673348 AND id <= 1000").size());
+        Map<Integer, Long> rejects = query("SELECT id, 0 FROM phone_migration_rejects");
+        assertEquals(1, rejects.size());
+        assertTrue(rejects.containsKey(1003));
+
+        execute("ALTER TABLE student DROP COLUMN phone");
+        assertEquals(0, migration.migrate());
+        assertEquals(Types.BIGINT, phoneType());
+        assertTrue(phoneIsIndexed());
+    }
+
+    @Test
+    public void whenPhoneIsAlreadyBigint_NothingChanges() throws SQLException {
+        execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+        execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348)");
+        assertEquals(0, migration.migrate());
+        assertEquals(201128673348L, query("SELECT id, phone FROM student").get(1));
+    }
+
+    @Test
+    public void whenTableHasNoPhoneColumn_MigrationFails() throws SQLException {
+        execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE)");
+        assertThrows(SQLException.class, migration::migrate);
+    }
+
+    private static Map<Integer, Long> query(String sql) throws SQLException {
+        Map<Integer, Long> rows = new LinkedHashMap<>();
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            while (resultSet.next()) {
+                Number value = (Number) resultSet.getObject(2);
+                rows.put(resultSet.getInt(1), value == null ? null : value.longValue());
+            }
+        }
+        return rows;
+    }
+
+    private static int phoneType() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT phone FROM student WHERE 1=0")) {
+            return resultSet.getMetaData().getColumnType(1);
+        }
+    }
+
+    private static boolean phoneIsIndexed() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL);
+             ResultSet resultSet = con.getMetaData().getIndexInfo(null, null, "STUDENT", false, false)) {
+            while (resultSet.next()) {
+                if ("PHONE".equals(resultSet.getString("COLUMN_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package main.java.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PhoneTest {
+
+    private static final long MOBILE = 201128673348L;
+
+    @Test
+    public void whenNumberIsNational_DefaultCountryCodeIsAdded() {
+        assertEquals(MOBILE, Phone.of("01128673348").toE164());
+    }
+
+    @Test
+    public void whenNumberHasPlusOrDoubleZero_CountryCodeIsKept() {
+        assertEquals(MOBILE, Phone.of("+201128673348").toE164());
+        assertEquals(MOBILE, Phone.of("00201128673348").toE164());
+        assertEquals(4420794600L, Phone.of("+44 20 7946 00").toE164());
+    }
+
+    @Test
+    public void whenOldServiceAddedPlusTwoOnEveryWrite_ExtraPrefixesAreDropped() {
+        assertEquals(MOBILE, Phone.of("+2+201128673348").toE164());
+        assertEquals(MOBILE, Phone.of("+2+2+2+201128673348").toE164());
+        // the old service also prefixed national numbers
+        assertEquals(MOBILE, Phone.of("+201128673348").toE164());
+    }
+
+    @Test
+    public void whenDigitsAreBare_OnlyANationalNumberWithoutItsZeroIsAccepted() {
+        assertEquals(MOBILE, Phone.of("1128673348").toE164());
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("201128673348"));
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("128673348"));
+    }
+
+    @Test
+    public void whenNumberHasSeparators_TheyAreIgnored() {
+        assertEquals(MOBILE, Phone.of("+20 (112) 867-33.48").toE164());
+        assertEquals(MOBILE, Phone.of("0112 867 3348").toE164());
+    }
+
+    @Test
+    public void whenNumberIsTooLong_ItIsRejected() {
+        assertEquals(999_999_999_999_999L, Phone.of("+999999999999999").toE164());
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("+1234567890123456"));
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("001234567890123456"));
+    }
+
+    @Test
+    public void whenTextIsNotAPhoneNumber_ItIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Phone.of(null));
+        assertThrows(IllegalArgumentException.class, () -> Phone.of(""));
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("+20 112 867 abc"));
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("+2011+28673348"));
+        assertThrows(IllegalArgumentException.class, () -> Phone.of("+12345"));
+    }
+
+    @Test
+    public void whenStoredDigitsAreRead_TheyPrintWithAPlus() {
+        Phone phone = Phone.fromE164(MOBILE);
+        assertEquals(Phone.of("01128673348"), phone);
+        assertEquals("+201128673348", phone.toString());
+        assertThrows(IllegalArgumentException.class, () -> Phone.fromE164(0));
+        assertThrows(IllegalArgumentException.class, () -> Phone.fromE164(1_000_000_000_000_000L));
+    }
+}
@@ -0,0 +1,134 @@
+package main.java.service.impl;
+
+import main.java.connection.DBConnection;
+import main.java.connection.pool.PoolConfig;
+import main.java.model.Student;
+import main.java.service.AsyncStudentService;
+import main.java.service.StudentServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncStudentServiceImplTest {
+
+    private static final String URL = "jdbc:h2:mem:async;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        execute("DROP TABLE IF EXISTS student");
+        execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+        execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348)");
+        DBConnection.configure(PoolConfig.builder().poolName("async").url(URL).minIdle(0).maxSize(4).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenCallSucceeds_FutureCompletesWithItsResult() throws Exception {
+        try (AsyncStudentService async = new AsyncStudentServiceImpl(new StudentServiceImpl(), 4)) {
+            assertEquals("ahmed", async.getStuById(1).get(5, TimeUnit.SECONDS).getStudentName());
+            List<Integer> ids = async.addStudents(Arrays.asList(
+                    Student.builder().name("mona").gpa(3.5).phone("01128673348").build())).get(5, TimeUnit.SECONDS);
+            assertEquals(2, async.getAllStudent().get(5, TimeUnit.SECONDS).size());
+            assertEquals("mona", async.getStuById(ids.get(0)).get(5, TimeUnit.SECONDS).getStudentName());
+        }
+    }
+
+    @Test
+    public void whenDatabaseFails_FutureCompletesExceptionally() throws Exception {
+        execute("DROP TABLE student");
+        try (AsyncStudentService async = new AsyncStudentServiceImpl(new StudentServiceImpl(), 4)) {
+            ExecutionException read = assertThrows(ExecutionException.class, () -> async.getStuById(1).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StudentServiceException.class, read.getCause());
+            ExecutionException write = assertThrows(ExecutionException.class, () -> async.AddStudent(
+                    Student.builder().name("mona").gpa(3.5).phone("01128673348").build()).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StudentServiceException.class, write.getCause());
+        }
+    }
+
+    @Test
+    public void withConcurrencyLimit_NoMoreCallsRunAtOnce() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger highest = new AtomicInteger();
+        StudentServiceImpl slow = new StudentServiceImpl() {
+            @Override
+            public Student getStuById(int id) {
+                highest.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                    return super.getStuById(id);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        };
+        try (AsyncStudentService async = new AsyncStudentServiceImpl(slow, Executors.newCachedThreadPool(), 2)) {
+            List<CompletableFuture<Student>> calls = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                calls.add(async.getStuById(1));
+            }
+            CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        }
+        assertEquals(2, highest.get());
+    }
+
+    // without an explicit limit the pool decides, so more calls than carrier threads reach the delegate at once
+    @Test
+    public void withoutConcurrencyLimit_CallsAreNotCappedAtTheCarrierCount() throws Exception {
+        int calls = AsyncStudentServiceImpl.carrierThreads() + 2;
+        CountDownLatch allInside = new CountDownLatch(calls);
+        StudentServiceImpl waiting = new StudentServiceImpl() {
+            @Override
+            public Student getStuById(int id) {
+                allInside.countDown();
+                try {
+                    // only returns once every call has entered at the same time
+                    if (!allInside.await(5, TimeUnit.SECONDS)) {
+                        throw new IllegalStateException("calls were held back");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                return null;
+            }
+        };
+        try (AsyncStudentService async = new AsyncStudentServiceImpl(waiting, AsyncStudentServiceImpl.newPerTaskExecutor(calls))) {
+            List<CompletableFuture<Student>> futures = new ArrayList<>();
+            for (int i = 0; i < calls; i++) {
+                futures.add(async.getStuById(1));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
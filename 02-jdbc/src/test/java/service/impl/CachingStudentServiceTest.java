@@ -0,0 +1,109 @@
+package main.java.service.impl;
+
+import main.java.connection.DBConnection;
+import main.java.connection.StudentUnitOfWork;
+import main.java.connection.pool.PoolConfig;
+import main.java.model.Student;
+import main.java.service.StudentServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// students 1 and 2 are committed before every test
+class CachingStudentServiceTest {
+
+    private static final String URL = "jdbc:h2:mem:caching;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final CachingStudentService studentService =
+            new CachingStudentService(new StudentServiceImpl(), 100, 1, TimeUnit.MINUTES);
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+            statement.execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348),('mona',3.5,201128673348)");
+        }
+        DBConnection.configure(PoolConfig.builder().poolName("caching").url(URL).minIdle(0).maxSize(3).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenStudentIsReadTwice_SecondReadIsServedFromCache() {
+        studentService.getStuById(1);
+        studentService.getStuById(1);
+        assertEquals(1, studentService.getCacheStats().getHits());
+        assertEquals(1, studentService.getCacheSize());
+    }
+
+    @Test
+    public void whenStudentIsUpdated_NextReadSeesTheChange() {
+        studentService.getStuById(1);
+        studentService.updateStudent(student(1, "ahmed ali"));
+        assertEquals("ahmed ali", studentService.getStuById(1).getStudentName());
+
+        studentService.getStuById(2);
+        studentService.deleteStudents(Arrays.asList(1, 2));
+        assertNull(studentService.getStuById(2));
+    }
+
+    // another thread reads the old row while the unit of work has written but not yet committed the new one
+    @Test
+    public void whenReaderCachesOldRowBeforeCommit_CommitInvalidatesItAgain() throws Exception {
+        try (StudentUnitOfWork unitOfWork = StudentUnitOfWork.begin()) {
+            studentService.updateStudents(Arrays.asList(student(1, "ahmed ali"), student(2, "mona ali")));
+
+            CompletableFuture.runAsync(() -> {
+                assertEquals("ahmed", studentService.getStuById(1).getStudentName());
+                assertEquals("mona", studentService.getStuById(2).getStudentName());
+            }).get(5, TimeUnit.SECONDS);
+            assertEquals(2, studentService.getCacheSize());
+
+            unitOfWork.commit();
+        }
+        assertEquals("ahmed ali", studentService.getStuById(1).getStudentName());
+        assertEquals("mona ali", studentService.getStuById(2).getStudentName());
+    }
+
+    @Test
+    public void whenUnitOfWorkRollsBack_CachedRowsStayValid() throws Exception {
+        try (StudentUnitOfWork ignored = StudentUnitOfWork.begin()) {
+            studentService.deleteStudent(1);
+            CompletableFuture.runAsync(() -> studentService.getStuById(1)).get(5, TimeUnit.SECONDS);
+        }
+        assertEquals("ahmed", studentService.getStuById(1).getStudentName());
+    }
+
+    // batches of one, so the first update is committed before the second fails
+    @Test
+    public void whenBatchFailsPartway_CommittedIdsAreInvalidated() {
+        CachingStudentService chunked = new CachingStudentService(new StudentServiceImpl(1), 100, 1, TimeUnit.MINUTES);
+        chunked.getStuById(1);
+        chunked.getStuById(2);
+
+        assertThrows(StudentServiceException.class,
+                () -> chunked.updateStudents(Arrays.asList(student(1, "ahmed ali"), student(2, "a name far too long"))));
+        assertEquals("ahmed ali", chunked.getStuById(1).getStudentName());
+        assertEquals("mona", chunked.getStuById(2).getStudentName());
+    }
+
+    private static Student student(int id, String name) {
+        return Student.builder().id(id).name(name).gpa(3.0).phone("01128673348").build();
+    }
+}
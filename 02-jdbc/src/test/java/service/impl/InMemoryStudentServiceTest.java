@@ -0,0 +1,150 @@
+package main.java.service.impl;
+
+import main.java.model.Student;
+import main.java.model.StudentPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryStudentServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void whenReopened_LoggedChangesAreReplayed() throws IOException {
+        List<Integer> ids;
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            ids = store.addStudents(students("s", 5));
+            store.updateStudent(student(ids.get(1), "updated", 1.5));
+            store.deleteStudent(ids.get(3));
+        }
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            assertEquals(4, store.size());
+            assertEquals("updated", store.getStuById(ids.get(1)).getStudentName());
+            assertNull(store.getStuById(ids.get(3)));
+            assertEquals(Arrays.asList(ids.get(1)), idsOf(store.getStudentsByGpaRange(1.0, 2.0)));
+        }
+    }
+
+    @Test
+    public void whenSnapshotIsTaken_ItReplacesTheLogAndLeavesNoTemporaryFile() throws IOException {
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            store.addStudents(students("s", 3));
+            store.snapshot();
+            store.AddStudent(student(0, "after", 3.0));
+        }
+        assertTrue(Files.exists(directory.resolve("students.snapshot")));
+        assertFalse(Files.exists(directory.resolve("students.snapshot.tmp")));
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            assertEquals(4, store.size());
+            assertEquals("after", store.getStuById(4).getStudentName());
+        }
+    }
+
+    // the process died while writing the next snapshot, before it was moved into place
+    @Test
+    public void whenSnapshotWriteWasCutShort_PreviousSnapshotAndLogAreUsed() throws IOException {
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            store.addStudents(students("s", 3));
+            store.snapshot();
+            store.deleteStudent(2);
+        }
+        Files.write(directory.resolve("students.snapshot.tmp"), new byte[]{1, 2, 3});
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            assertEquals(2, store.size());
+            assertNull(store.getStuById(2));
+            store.snapshot();
+        }
+        assertFalse(Files.exists(directory.resolve("students.snapshot.tmp")));
+    }
+
+    @Test
+    public void whenSnapshotHeaderIsNotRecognized_OpeningFails() throws IOException {
+        // magic of the snapshot format without a next id, which is no longer read
+        Files.write(directory.resolve("students.snapshot"), new byte[]{0x53, 0x54, 0x55, 0x44, 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> new InMemoryStudentService(directory));
+        Files.write(directory.resolve("students.snapshot"), new byte[]{0x53, 0x54, 0x55, 0x32, 0, 0, 0, 1});
+        assertThrows(IOException.class, () -> new InMemoryStudentService(directory));
+    }
+
+    @Test
+    public void whenHighestIdsWereDeletedBeforeSnapshot_TheyAreNotReusedAfterRestart() throws IOException {
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            store.addStudents(students("s", 5));
+            store.deleteStudents(Arrays.asList(4, 5));
+            store.snapshot();
+        }
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            assertEquals(Arrays.asList(6), store.addStudents(students("new", 1)));
+        }
+    }
+
+    @Test
+    public void whenHighestIdWasDeletedWithoutSnapshot_ItIsNotReusedAfterRestart() throws IOException {
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            store.addStudents(students("s", 3));
+            store.deleteStudent(3);
+        }
+        try (InMemoryStudentService store = new InMemoryStudentService(directory)) {
+            assertEquals(Arrays.asList(4), store.addStudents(students("new", 1)));
+        }
+    }
+
+    @Test
+    public void whenManyStudentsAreDeletedAtOnce_PagesAndGpaRangesSkipThem() {
+        InMemoryStudentService store = new InMemoryStudentService();
+        List<Integer> ids = store.addStudents(students("s", 1_000));
+        List<Integer> deleted = new ArrayList<>();
+        for (int id : ids) {
+            if (id % 3 != 0) {
+                deleted.add(id);
+            }
+        }
+        // unknown ids and duplicates change nothing
+        deleted.add(5_000);
+        deleted.add(1);
+        store.deleteStudents(deleted);
+
+        assertEquals(333, store.size());
+        StudentPage page = store.getStudentPage(0, 3);
+        assertEquals(Arrays.asList(3, 6, 9), idsOf(page.getStudents()));
+        assertEquals(333, store.getAllStudent().size());
+        for (Student student : store.getStudentsByGpaRange(0, 4)) {
+            assertEquals(0, student.getId() % 3);
+        }
+        assertEquals(333, store.getStudentsByGpaRange(0, 4).size());
+    }
+
+    private static List<Student> students(String prefix, int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(student(0, prefix + i, (i % 41) / 10.0));
+        }
+        return students;
+    }
+
+    private static Student student(int id, String name, double gpa) {
+        return Student.builder().id(id).name(name).gpa(gpa).phone("01128673348").build();
+    }
+
+    private static List<Integer> idsOf(List<Student> students) {
+        List<Integer> ids = new ArrayList<>(students.size());
+        for (Student student : students) {
+            ids.add(student.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,147 @@
+package main.java.service.impl;
+
+import main.java.connection.DBConnection;
+import main.java.connection.StudentUnitOfWork;
+import main.java.connection.pool.PoolConfig;
+import main.java.model.Student;
+import main.java.service.StudentServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// batches of three against an in-memory H2 database, so a handful of students already spans several chunks
+class StudentServiceBatchTest {
+
+    private static final String URL = "jdbc:h2:mem:batch;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int BATCH_SIZE = 3;
+
+    private final StudentServiceImpl studentService = new StudentServiceImpl(BATCH_SIZE);
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+        }
+        DBConnection.configure(PoolConfig.builder().poolName("batch").url(URL).minIdle(0).maxSize(2).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenBatchEndsOnOrAcrossChunkBoundaries_EveryStudentIsWritten() throws SQLException {
+        int written = 0;
+        for (int size : new int[]{1, BATCH_SIZE - 1, BATCH_SIZE, BATCH_SIZE + 1, 2 * BATCH_SIZE, 2 * BATCH_SIZE + 1}) {
+            List<Integer> ids = studentService.addStudents(students("s" + size + "-", size));
+            assertEquals(size, ids.size());
+            written += size;
+            assertEquals(written, countStudents());
+        }
+    }
+
+    @Test
+    public void whenBatchSpansChunks_GeneratedKeysMatchTheStudentsInOrder() {
+        List<Student> students = students("key-", 2 * BATCH_SIZE + 1);
+        List<Integer> ids = studentService.addStudents(students);
+
+        assertEquals(students.size(), ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals("key-" + i, studentService.getStuById(ids.get(i)).getStudentName());
+        }
+    }
+
+    @Test
+    public void whenMiddleChunkFails_EarlierChunksStayCommittedAndFailedItemsAreReported() throws SQLException {
+        List<Student> students = students("ok-", 3 * BATCH_SIZE);
+        // too long for the name column, in the second chunk
+        Student tooLong = Student.builder().name("a name far too long").gpa(3.0).phone("01128673348").build();
+        students.set(BATCH_SIZE + 1, tooLong);
+
+        StudentServiceException failure = assertThrows(StudentServiceException.class, () -> studentService.addStudents(students));
+        assertTrue(failure.getMessage().contains("items 3..5"), failure.getMessage());
+        assertEquals(students.subList(BATCH_SIZE, 2 * BATCH_SIZE), failure.getFailedItems());
+        assertEquals(BATCH_SIZE, failure.getCommittedIds().size());
+        assertEquals(BATCH_SIZE, countStudents());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            assertEquals("ok-" + i, studentService.getStuById(failure.getCommittedIds().get(i)).getStudentName());
+        }
+    }
+
+    @Test
+    public void whenUpdateChunkFails_CommittedIdsAreThoseOfTheEarlierChunks() {
+        List<Integer> ids = studentService.addStudents(students("before-", 2 * BATCH_SIZE));
+        List<Student> updated = new ArrayList<>();
+        for (Integer id : ids) {
+            updated.add(Student.builder().id(id).name("after-" + id).gpa(2.0).phone("01128673348").build());
+        }
+        updated.set(BATCH_SIZE, Student.builder().id(ids.get(BATCH_SIZE)).name("a name far too long").gpa(2.0).phone("01128673348").build());
+
+        StudentServiceException failure = assertThrows(StudentServiceException.class, () -> studentService.updateStudents(updated));
+        assertEquals(ids.subList(0, BATCH_SIZE), failure.getCommittedIds());
+        assertEquals("after-" + ids.get(0), studentService.getStuById(ids.get(0)).getStudentName());
+        assertEquals("before-" + BATCH_SIZE, studentService.getStuById(ids.get(BATCH_SIZE)).getStudentName());
+    }
+
+    @Test
+    public void whenChunkFailsInsideUnitOfWork_NothingIsCommitted() throws SQLException {
+        List<Student> students = students("ok-", 2 * BATCH_SIZE);
+        students.set(BATCH_SIZE, Student.builder().name("a name far too long").gpa(3.0).phone("01128673348").build());
+
+        try (StudentUnitOfWork ignored = StudentUnitOfWork.begin()) {
+            StudentServiceException failure = assertThrows(StudentServiceException.class, () -> studentService.addStudents(students));
+            assertTrue(failure.getCommittedIds().isEmpty());
+        }
+        assertEquals(0, countStudents());
+    }
+
+    @Test
+    public void whenUpdateOrDeleteSpansChunks_EveryRowIsAffected() throws SQLException {
+        List<Integer> ids = studentService.addStudents(students("before-", 2 * BATCH_SIZE + 1));
+        List<Student> updated = new ArrayList<>();
+        for (Integer id : ids) {
+            updated.add(Student.builder().id(id).name("after-" + id).gpa(2.0).phone("01128673348").build());
+        }
+        studentService.updateStudents(updated);
+        for (Integer id : ids) {
+            assertEquals("after-" + id, studentService.getStuById(id).getStudentName());
+        }
+
+        studentService.deleteStudents(ids.subList(0, BATCH_SIZE + 1));
+        assertNull(studentService.getStuById(ids.get(BATCH_SIZE)));
+        assertEquals(ids.size() - BATCH_SIZE - 1, countStudents());
+        assertEquals(Arrays.asList(), studentService.addStudents(new ArrayList<>()));
+    }
+
+    private static List<Student> students(String prefix, int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(Student.builder().name(prefix + i).gpa(3.0).phone("01128673348").build());
+        }
+        return students;
+    }
+
+    private static int countStudents() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM student")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package main.java.service.impl;
+
+import main.java.connection.DBConnection;
+import main.java.connection.pool.PoolConfig;
+import main.java.metrics.JdbcMetrics;
+import main.java.metrics.QueryStats;
+import main.java.model.Phone;
+import main.java.model.Student;
+import main.java.model.StudentColumn;
+import main.java.model.StudentPage;
+import main.java.service.StudentServiceException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// students 1 to 3 are committed before every test, on a pool of two connections
+class StudentServiceImplTest {
+
+    private static final String URL = "jdbc:h2:mem:student-service;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private final StudentServiceImpl studentService = new StudentServiceImpl();
+
+    @BeforeEach
+    public void createTable() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS student");
+            statement.execute("CREATE TABLE student(id INT PRIMARY KEY AUTO_INCREMENT, name VARCHAR(15), gpa DOUBLE, phone BIGINT)");
+            statement.execute("INSERT INTO student (name,gpa,phone) VALUES('ahmed',3.0,201128673348),"
+                    + "('mona',3.5,201128673349),('omar',2.5,201128673350)");
+        }
+        DBConnection.configure(PoolConfig.builder().poolName("student-service").url(URL)
+                .minIdle(0).maxSize(2).borrowTimeoutMillis(100).build());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        DBConnection.setListener(null);
+        DBConnection.shutdown();
+    }
+
+    @Test
+    public void whenPoolIsExhausted_CallFailsWithTheTimeoutInsteadOfNull() throws SQLException {
+        try (Connection first = DBConnection.getConnection(); Connection second = DBConnection.getConnection()) {
+            StudentServiceException read = assertThrows(StudentServiceException.class, () -> studentService.getStuById(1));
+            assertInstanceOf(SQLTimeoutException.class, read.getCause());
+            StudentServiceException write = assertThrows(StudentServiceException.class, () -> studentService.deleteStudent(1));
+            assertInstanceOf(SQLTimeoutException.class, write.getCause());
+        }
+    }
+
+    @Test
+    public void whenStreamIsClosedEarly_ItsStatementAndConnectionAreReleased() {
+        // the instrumented statement reports the rows it read when it is closed
+        JdbcMetrics metrics = new JdbcMetrics();
+        DBConnection.setListener(metrics);
+        try (Stream<Student> students = studentService.streamAllStudents()) {
+            Iterator<Student> rows = students.iterator();
+            assertEquals("ahmed", rows.next().getStudentName());
+            assertEquals(1, DBConnection.getPool().getActiveConnections());
+        }
+        assertEquals(0, DBConnection.getPool().getActiveConnections());
+        assertEquals(1, metrics.getRowsProcessed());
+
+        // both connections are free again, so neither stream waits for one
+        try (Stream<Student> first = studentService.streamAllStudents(); Stream<Student> second = studentService.streamAllStudents()) {
+            assertEquals(3, first.count());
+            assertEquals(3, second.count());
+        }
+        assertEquals(0, DBConnection.getPool().getActiveConnections());
+        assertEquals(7, metrics.getRowsProcessed());
+    }
+
+    @Test
+    public void whenPagesAreRead_EachStartsAfterTheLastIdOfThePreviousOne() throws SQLException {
+        execute("DELETE FROM student WHERE id = 2");
+        execute("INSERT INTO student (id,name,gpa,phone) VALUES(7,'sara',3.9,201128673351)");
+
+        StudentPage first = studentService.getStudentPage(0, 2);
+        assertEquals(Arrays.asList(1, 3), idsOf(first.getStudents()));
+        assertEquals(3, first.getLastId());
+        assertTrue(first.hasNext());
+        // exactly the remaining rows: the extra row that is read finds nothing
+        StudentPage second = studentService.getStudentPage(first.getLastId(), 1);
+        assertEquals(Collections.singletonList(7), idsOf(second.getStudents()));
+        assertFalse(second.hasNext());
+        StudentPage past = studentService.getStudentPage(second.getLastId(), 2);
+        assertTrue(past.getStudents().isEmpty());
+        assertEquals(7, past.getLastId());
+        assertFalse(past.hasNext());
+        assertFalse(studentService.getStudentPage(0, 3).hasNext());
+        assertThrows(IllegalArgumentException.class, () -> studentService.getStudentPage(0, 0));
+    }
+
+    @Test
+    public void whenPageIsProjected_OnlyTheListedColumnsAndTheIdAreRead() {
+        Student named = studentService.getStudentPage(0, 1, StudentColumn.NAME).getStudents().get(0);
+        assertEquals(1, named.getId());
+        assertEquals("ahmed", named.getStudentName());
+        assertEquals(0, named.getGpa());
+        assertNull(named.getPhone());
+
+        Student rated = studentService.getStudentPage(1, 1, StudentColumn.PHONE, StudentColumn.GPA).getStudents().get(0);
+        assertEquals(2, rated.getId());
+        assertNull(rated.getStudentName());
+        assertEquals(3.5, rated.getGpa());
+        assertEquals(Phone.fromE164(201128673349L), rated.getPhone());
+
+        Student whole = studentService.getStudentPage(2, 1).getStudents().get(0);
+        assertEquals("omar", whole.getStudentName());
+        assertEquals(Phone.fromE164(201128673350L), whole.getPhone());
+    }
+
+    @Test
+    public void whenIdsRepeatOrAreMissing_EachFoundStudentIsReturnedOnceInRequestOrder() {
+        Map<Integer, Student> students = studentService.getStudentsByIds(Arrays.asList(3, 99, 1, 3, 1));
+        assertEquals(Arrays.asList(3, 1), new ArrayList<>(students.keySet()));
+        assertEquals("omar", students.get(3).getStudentName());
+        assertEquals("ahmed", students.get(1).getStudentName());
+        assertTrue(studentService.getStudentsByIds(Collections.emptyList()).isEmpty());
+        assertTrue(studentService.getStudentsByIds(Collections.singletonList(99)).isEmpty());
+    }
+
+    @Test
+    public void whenManyIdsAreRequested_TheyAreReadInChunksPaddedToPowersOfTwo() throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL);
+             PreparedStatement ps = con.prepareStatement("INSERT INTO student (name,gpa,phone) VALUES(?,3.0,201128673348)")) {
+            for (int i = 0; i < 300; i++) {
+                ps.setString(1, "s" + i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        JdbcMetrics metrics = new JdbcMetrics();
+        DBConnection.setListener(metrics);
+
+        assertEquals(3, studentService.getStudentsByIds(Arrays.asList(1, 2, 3)).size());
+        List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= 303; id++) {
+            ids.add(id);
+        }
+        ids.add(1_000);
+        Map<Integer, Student> students = studentService.getStudentsByIds(ids);
+        assertEquals(303, students.size());
+        assertEquals(ids.subList(0, 303), new ArrayList<>(students.keySet()));
+
+        // 3 ids take the statement with 4 parameters, 304 take one of 256 and one of 64 for the 48 left
+        assertEquals(parametersPerExecution(4, 1, 256, 1, 64, 1), parametersPerExecution(metrics));
+    }
+
+    private static Map<Integer, Long> parametersPerExecution(int... parametersAndExecutions) {
+        Map<Integer, Long> executions = new TreeMap<>();
+        for (int i = 0; i < parametersAndExecutions.length; i += 2) {
+            executions.put(parametersAndExecutions[i], (long) parametersAndExecutions[i + 1]);
+        }
+        return executions;
+    }
+
+    private static Map<Integer, Long> parametersPerExecution(JdbcMetrics metrics) {
+        Map<Integer, Long> executions = new TreeMap<>();
+        for (QueryStats stats : metrics.getStatementStats()) {
+            int parameters = stats.getSql().length() - stats.getSql().replace("?", "").length();
+            executions.merge(parameters, stats.getExecutions(), Long::sum);
+        }
+        return executions;
+    }
+
+    private static List<Integer> idsOf(List<Student> students) {
+        List<Integer> ids = new ArrayList<>(students.size());
+        for (Student student : students) {
+            ids.add(student.getId());
+        }
+        return ids;
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection con = DriverManager.getConnection(URL); Statement statement = con.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
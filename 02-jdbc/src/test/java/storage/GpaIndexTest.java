@@ -0,0 +1,66 @@
+package main.java.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GpaIndexTest {
+
+    @Test
+    public void whenGpasTie_RangeIsOrderedById() {
+        GpaIndex index = new GpaIndex();
+        index.add(3.0, 7);
+        index.add(2.0, 9);
+        index.add(3.0, 2);
+        index.add(4.0, 1);
+        assertArrayEquals(new int[]{9, 2, 7}, index.range(2.0, 3.0));
+        assertArrayEquals(new int[0], index.range(4.5, 5.0));
+    }
+
+    @Test
+    public void whenEntryIsRemoved_OnlyTheExactPairGoes() {
+        GpaIndex index = new GpaIndex();
+        index.add(3.0, 1);
+        assertFalse(index.remove(3.5, 1));
+        assertFalse(index.remove(3.0, 2));
+        assertTrue(index.remove(3.0, 1));
+        assertEquals(0, index.size());
+        assertArrayEquals(new int[0], index.range(0, 4));
+    }
+
+    // several thousand entries split into many blocks, and removals empty some of them again
+    @Test
+    public void whenManyEntriesChange_RangesMatchAFullScan() {
+        Random random = new Random(11);
+        GpaIndex index = new GpaIndex();
+        List<double[]> entries = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            double gpa = random.nextInt(41) / 10.0;
+            index.add(gpa, id);
+            entries.add(new double[]{gpa, id});
+        }
+        for (int i = 0; i < 3_000; i++) {
+            double[] entry = entries.remove(random.nextInt(entries.size()));
+            assertTrue(index.remove(entry[0], (int) entry[1]));
+        }
+        assertEquals(entries.size(), index.size());
+        entries.sort(Comparator.<double[]>comparingDouble(entry -> entry[0]).thenComparingDouble(entry -> entry[1]));
+        for (double[] range : new double[][]{{0, 4}, {1.5, 2.5}, {3.3, 3.3}, {4.1, 5}}) {
+            List<Integer> expected = new ArrayList<>();
+            for (double[] entry : entries) {
+                if (entry[0] >= range[0] && entry[0] <= range[1]) {
+                    expected.add((int) entry[1]);
+                }
+            }
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), index.range(range[0], range[1]));
+        }
+    }
+}
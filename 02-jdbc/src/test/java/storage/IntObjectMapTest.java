@@ -0,0 +1,58 @@
+package main.java.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntObjectMapTest {
+
+    @Test
+    public void whenKeysArePutAndReplaced_PreviousValuesAreReturned() {
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        assertNull(map.put(1, "a"));
+        assertEquals("a", map.put(1, "b"));
+        assertEquals("b", map.get(1));
+        assertNull(map.get(2));
+        assertEquals(1, map.size());
+        assertThrows(IllegalArgumentException.class, () -> map.put(0, "zero"));
+    }
+
+    // a small table keeps the probe chains long, so most removals have to shift later entries back
+    @Test
+    public void whenEntriesAreRemovedFromProbeChains_EveryOtherKeyIsStillFound() {
+        Random random = new Random(7);
+        IntObjectMap<Integer> map = new IntObjectMap<>(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = 1 + random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 1; key <= 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void whenMapIsCleared_ItIsEmptyAndReusable() {
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        for (int key = 1; key <= 100; key++) {
+            map.put(key, "v" + key);
+        }
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(50));
+        map.put(50, "again");
+        assertEquals("again", map.get(50));
+    }
+}
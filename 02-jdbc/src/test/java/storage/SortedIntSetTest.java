@@ -0,0 +1,86 @@
+package main.java.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedIntSetTest {
+
+    @Test
+    public void whenValuesAreAddedOutOfOrder_TheyAreKeptSortedOnce() {
+        SortedIntSet set = new SortedIntSet();
+        for (int value : new int[]{5, 1, 9, 3, 9, 1, 20}) {
+            set.add(value);
+        }
+        assertEquals(5, set.size());
+        assertEquals("1 3 5 9 20", contents(set));
+        assertFalse(set.add(3));
+        assertEquals(2, set.indexAfter(3));
+        assertEquals(2, set.indexAfter(4));
+        assertEquals(5, set.indexAfter(20));
+    }
+
+    @Test
+    public void whenValuesAreRemoved_TheRestStaySorted() {
+        SortedIntSet set = new SortedIntSet();
+        for (int value = 1; value <= 10; value++) {
+            set.add(value);
+        }
+        assertTrue(set.remove(1));
+        assertTrue(set.remove(10));
+        assertFalse(set.remove(10));
+        assertTrue(set.remove(5));
+        assertEquals("2 3 4 6 7 8 9", contents(set));
+    }
+
+    @Test
+    public void whenManyValuesAreRemovedAtOnce_SetMatchesOneByOneRemoval() {
+        Random random = new Random(42);
+        SortedIntSet set = new SortedIntSet();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(50_000);
+            set.add(value);
+            expected.add(value);
+        }
+        // unsorted, with duplicates and values that are not in the set
+        int[] removed = new int[6_000];
+        for (int i = 0; i < removed.length; i++) {
+            removed[i] = random.nextInt(60_000);
+        }
+        int before = expected.size();
+        for (int value : removed) {
+            expected.remove(value);
+        }
+        assertEquals(before - expected.size(), set.removeAll(removed, removed.length));
+        assertEquals(expected.size(), set.size());
+        int index = 0;
+        for (int value : expected) {
+            assertEquals(value, set.get(index++));
+        }
+    }
+
+    @Test
+    public void whenOnlyPartOfTheArrayIsGiven_TheRestIsIgnored() {
+        SortedIntSet set = new SortedIntSet();
+        for (int value = 1; value <= 5; value++) {
+            set.add(value);
+        }
+        assertEquals(2, set.removeAll(new int[]{4, 2, 1, 3}, 2));
+        assertEquals("1 3 5", contents(set));
+        assertEquals(0, set.removeAll(new int[0], 0));
+    }
+
+    private static String contents(SortedIntSet set) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < set.size(); i++) {
+            text.append(i == 0 ? "" : " ").append(set.get(i));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package main.java.storage;
+
+import main.java.model.Student;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StudentLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void whenLogIsReopened_EntriesReplayInOrder() throws IOException {
+        Path file = directory.resolve("students.log");
+        try (StudentLog log = new StudentLog(file)) {
+            log.appendPut(student(1, "ahmed"));
+            log.appendPut(new Student(null, 2.5, 2, null));
+            log.appendDelete(1);
+        }
+        List<String> replayed = new ArrayList<>();
+        try (StudentLog log = new StudentLog(file)) {
+            log.replay(student -> replayed.add("put " + student.getId() + " " + student.getStudentName()),
+                    id -> replayed.add("delete " + id));
+        }
+        assertEquals(3, replayed.size());
+        assertEquals("put 1 ahmed", replayed.get(0));
+        assertEquals("put 2 null", replayed.get(1));
+        assertEquals("delete 1", replayed.get(2));
+    }
+
+    // the process died after writing the entry and the end byte behind it, but before its type byte
+    @Test
+    public void whenLastEntryIsTorn_ItIsNotReplayedAndIsOverwritten() throws IOException {
+        Path file = directory.resolve("students.log");
+        int tornAt;
+        try (StudentLog log = new StudentLog(file)) {
+            log.appendPut(student(1, "ahmed"));
+            tornAt = log.size();
+            log.appendPut(student(2, "mona"));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0}), tornAt);
+        }
+        List<Integer> replayed = new ArrayList<>();
+        try (StudentLog log = new StudentLog(file)) {
+            log.replay(student -> replayed.add(student.getId()), id -> replayed.add(-id));
+            assertEquals(tornAt, log.size());
+            log.appendPut(student(3, "omar"));
+        }
+        try (StudentLog log = new StudentLog(file)) {
+            log.replay(student -> replayed.add(student.getId()), id -> replayed.add(-id));
+        }
+        assertEquals(3, replayed.size());
+        assertEquals(1, (int) replayed.get(0));
+        assertEquals(1, (int) replayed.get(1));
+        assertEquals(3, (int) replayed.get(2));
+    }
+
+    @Test
+    public void whenLogOutgrowsItsMapping_ItIsRemappedLarger() throws IOException {
+        Path file = directory.resolve("students.log");
+        int count = 40_000;
+        try (StudentLog log = new StudentLog(file)) {
+            for (int id = 1; id <= count; id++) {
+                log.appendPut(student(id, "student number " + id));
+            }
+        }
+        int[] replayed = new int[1];
+        try (StudentLog log = new StudentLog(file)) {
+            log.replay(student -> assertEquals(++replayed[0], student.getId()), id -> { });
+        }
+        assertEquals(count, replayed[0]);
+    }
+
+    @Test
+    public void whenLogIsReset_NothingIsReplayed() throws IOException {
+        Path file = directory.resolve("students.log");
+        try (StudentLog log = new StudentLog(file)) {
+            log.appendPut(student(1, "ahmed"));
+            log.reset();
+            assertEquals(0, log.size());
+        }
+        Student[] replayed = new Student[1];
+        try (StudentLog log = new StudentLog(file)) {
+            log.replay(student -> replayed[0] = student, id -> { });
+        }
+        assertNull(replayed[0]);
+    }
+
+    private static Student student(int id, String name) {
+        return Student.builder().id(id).name(name).gpa(3.0).phone("01128673348").build();
+    }
+}
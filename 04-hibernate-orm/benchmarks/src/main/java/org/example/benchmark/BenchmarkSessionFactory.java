@@ -0,0 +1,42 @@
+package org.example.benchmark;
+
+import org.example.utils.EmployeeInheritance;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+
+import java.util.Map;
+
+// hibernate.cfg.xml pointed at an in-memory H2 database instead of PostgreSQL, with a fresh schema and show_sql off
+public final class BenchmarkSessionFactory {
+
+    public static final String URL = "jdbc:h2:mem:HibernateDb;DB_CLOSE_DELAY=-1";
+
+    private BenchmarkSessionFactory() {
+    }
+
+    public static SessionFactory create() {
+        return create(Map.of());
+    }
+
+    // the given properties override the ones from hibernate.cfg.xml
+    public static SessionFactory create(Map<String, String> overrides) {
+        return create(null, overrides);
+    }
+
+    // with the Employee hierarchy mapped by the given strategy, or as configured when it is null
+    public static SessionFactory create(EmployeeInheritance inheritance, Map<String, String> overrides) {
+        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+        configuration.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        configuration.setProperty("hibernate.connection.url", URL);
+        configuration.setProperty("hibernate.connection.username", "sa");
+        configuration.setProperty("hibernate.connection.password", "");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.forEach(configuration::setProperty);
+        if (inheritance == null) {
+            inheritance = EmployeeInheritance.configured(configuration);
+        }
+        return inheritance.applyTo(configuration).buildSessionFactory();
+    }
+}
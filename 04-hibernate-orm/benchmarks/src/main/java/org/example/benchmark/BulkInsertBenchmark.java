@@ -0,0 +1,109 @@
+package org.example.benchmark;
+
+import org.example.bulk.BulkPersister;
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// saving employees the way HibernateTest does, one persist each in a single unbatched session, against BulkPersister
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BulkInsertBenchmark {
+
+    private static final int DEPARTMENTS = 10;
+
+    @Param({"10000", "100000"})
+    int employees;
+
+    private SessionFactory sessionFactory;
+    private List<Department> departments;
+
+    // a new schema per iteration, so every iteration inserts into empty tables
+    @Setup(Level.Iteration)
+    public void setUp(BenchmarkParams params) {
+        sessionFactory = params.getBenchmark().endsWith("saveOneByOne")
+                ? BenchmarkSessionFactory.create(Map.of("hibernate.jdbc.batch_size", "0", "hibernate.order_inserts", "false"))
+                : BenchmarkSessionFactory.create();
+        departments = new ArrayList<>();
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < DEPARTMENTS; i++) {
+                Department department = new Department();
+                department.setName("Department " + i);
+                session.persist(department);
+                departments.add(department);
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public long saveOneByOne() {
+        long saved = 0;
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (Employee employee : employees()) {
+                session.persist(employee);
+                saved++;
+            }
+            session.getTransaction().commit();
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public long bulkPersister() {
+        return new BulkPersister(sessionFactory, 50).persistAll(employees());
+    }
+
+    // created one at a time as they are saved
+    private Iterable<Employee> employees() {
+        return () -> new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < employees;
+            }
+
+            @Override
+            public Employee next() {
+                Employee employee = new Employee();
+                employee.setName("Employee " + next);
+                employee.setDepartment(departments.get(next % DEPARTMENTS));
+                next++;
+                return employee;
+            }
+        };
+    }
+}
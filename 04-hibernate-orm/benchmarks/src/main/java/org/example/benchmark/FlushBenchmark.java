@@ -0,0 +1,88 @@
+package org.example.benchmark;
+
+import org.example.bulk.BulkPersister;
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// flushing a session that manages every employee, after changing one of them or none. Run once against the
+// module built as usual and once built with -DnoEnhance to compare enhanced dirty tracking with snapshot comparison.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FlushBenchmark {
+
+    @Param({"50000"})
+    int employees;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private List<Employee> managed;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.out.println("\nEntities bytecode enhanced: " + ManagedEntity.class.isAssignableFrom(Employee.class));
+        // the second-level cache is not what is measured
+        sessionFactory = BenchmarkSessionFactory.create(Map.of(
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.cache.use_query_cache", "false"));
+        Department department = new Department();
+        department.setName("Department");
+        List<Object> entities = new ArrayList<>(employees + 1);
+        entities.add(department);
+        for (int i = 0; i < employees; i++) {
+            Employee employee = new Employee();
+            employee.setName("Employee " + i);
+            employee.setDepartment(department);
+            entities.add(employee);
+        }
+        new BulkPersister(sessionFactory, 50).persistAll(entities);
+
+        session = sessionFactory.openSession();
+        session.beginTransaction();
+        managed = session.createSelectionQuery("from Employee", Employee.class).getResultList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.getTransaction().rollback();
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void flushUnchanged() {
+        session.flush();
+    }
+
+    @Benchmark
+    public void flushOneChange() {
+        Employee employee = managed.get(next++ % managed.size());
+        employee.setName("Renamed " + next);
+        session.flush();
+    }
+}
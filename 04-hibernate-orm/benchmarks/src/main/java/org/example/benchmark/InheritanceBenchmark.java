@@ -0,0 +1,157 @@
+package org.example.benchmark;
+
+import org.example.bulk.BulkPersister;
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.example.models.FullTimeEmployee;
+import org.example.models.PartTimeEmployee;
+import org.example.utils.EmployeeInheritance;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// the Employee hierarchy mapped with each inheritance strategy and loaded with the same employees: a third each
+// of Employee, FullTimeEmployee and PartTimeEmployee over DEPARTMENTS departments
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class InheritanceBenchmark {
+
+    private static final int DEPARTMENTS = 100;
+    private static final int INSERT_BATCH = 50;
+
+    @Param({"JOINED", "SINGLE_TABLE", "TABLE_PER_CLASS"})
+    EmployeeInheritance strategy;
+
+    @Param({"10000", "100000"})
+    int employees;
+
+    private SessionFactory sessionFactory;
+    private List<Department> departments;
+    private List<Long> employeeIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // every read goes to the database
+        sessionFactory = BenchmarkSessionFactory.create(strategy, Map.of(
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.cache.use_query_cache", "false"));
+        departments = new ArrayList<>(DEPARTMENTS);
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = new Department();
+            department.setName("Department " + i);
+            departments.add(department);
+        }
+        new BulkPersister(sessionFactory, 50).persistAll(departments);
+
+        List<Employee> dataset = new ArrayList<>(employees);
+        for (int i = 0; i < employees; i++) {
+            dataset.add(employee(i));
+        }
+        new BulkPersister(sessionFactory, 50).persistAll(dataset);
+        employeeIds = new ArrayList<>(employees);
+        for (Employee employee : dataset) {
+            employeeIds.add(employee.getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    // polymorphic load by id, the concrete class is only known from the row
+    @Benchmark
+    public Employee findById() {
+        Long id = employeeIds.get(ThreadLocalRandom.current().nextInt(employeeIds.size()));
+        try (Session session = sessionFactory.openSession()) {
+            return session.get(Employee.class, id);
+        }
+    }
+
+    // every employee of one department, of all three classes
+    @Benchmark
+    public List<Employee> polymorphicQuery() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from Employee e where e.department = :department", Employee.class)
+                    .setParameter("department", randomDepartment())
+                    .getResultList();
+        }
+    }
+
+    // the full-time employees of one department
+    @Benchmark
+    public List<FullTimeEmployee> subtypeQuery() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from FullTimeEmployee e where e.department = :department", FullTimeEmployee.class)
+                    .setParameter("department", randomDepartment())
+                    .getResultList();
+        }
+    }
+
+    // the full-time employees of one department through a type() restriction on the root
+    @Benchmark
+    public List<Employee> typeRestriction() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createSelectionQuery("from Employee e where type(e) = FullTimeEmployee and e.department = :department", Employee.class)
+                    .setParameter("department", randomDepartment())
+                    .getResultList();
+        }
+    }
+
+    // INSERT_BATCH employees of the three classes in one transaction
+    @Benchmark
+    public long insert() {
+        List<Employee> batch = new ArrayList<>(INSERT_BATCH);
+        int first = ThreadLocalRandom.current().nextInt(employees);
+        for (int i = 0; i < INSERT_BATCH; i++) {
+            batch.add(employee(first + i));
+        }
+        return new BulkPersister(sessionFactory, INSERT_BATCH).persistAll(batch);
+    }
+
+    private Department randomDepartment() {
+        return departments.get(ThreadLocalRandom.current().nextInt(DEPARTMENTS));
+    }
+
+    private Employee employee(int i) {
+        Employee employee;
+        switch (i % 3) {
+            case 1 -> {
+                FullTimeEmployee fullTime = new FullTimeEmployee();
+                fullTime.setSalary(3_000 + i % 5_000);
+                employee = fullTime;
+            }
+            case 2 -> {
+                PartTimeEmployee partTime = new PartTimeEmployee();
+                partTime.setSalary(1_000 + i % 2_000);
+                employee = partTime;
+            }
+            default -> employee = new Employee();
+        }
+        employee.setName("Employee " + i);
+        employee.setDepartment(departments.get(i % DEPARTMENTS));
+        return employee;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.benchmark;
+
+import org.example.models.Department;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// what a short-lived worker pays before its first query: building the SessionFactory and running one query in a
+// fresh JVM, which every fork does exactly once. Run again with the class data sharing archive the appcds profile
+// dumps, adding -jvmArgsAppend -XX:SharedArchiveFile=target/startup.jsa
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private SessionFactory sessionFactory;
+
+    @Benchmark
+    public List<Department> coldStart() {
+        sessionFactory = BenchmarkSessionFactory.create();
+        try (Session session = sessionFactory.openSession()) {
+            return session.createNamedQuery("Department.findAll", Department.class).getResultList();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    // one cold start outside JMH, the training run the appcds profile dumps the archive from
+    public static void main(String[] args) {
+        long start = System.nanoTime();
+        StartupBenchmark benchmark = new StartupBenchmark();
+        benchmark.coldStart();
+        benchmark.tearDown();
+        System.out.println("Started in " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+}
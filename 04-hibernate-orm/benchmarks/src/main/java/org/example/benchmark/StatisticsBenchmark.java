@@ -0,0 +1,94 @@
+package org.example.benchmark;
+
+import org.example.bulk.BulkPersister;
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// what collecting statistics, with the query time histograms of QueryTimingStatistics, adds to short sessions
+// that load an employee or run a query, against the same sessions with hibernate.generate_statistics off
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatisticsBenchmark {
+
+    private static final int DEPARTMENTS = 10;
+    private static final int EMPLOYEES = 1000;
+
+    @Param({"false", "true"})
+    boolean statistics;
+
+    private SessionFactory sessionFactory;
+    private List<Long> employeeIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // every read goes to the database
+        sessionFactory = BenchmarkSessionFactory.create(Map.of(
+                "hibernate.generate_statistics", String.valueOf(statistics),
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.cache.use_query_cache", "false"));
+        List<Department> departments = new ArrayList<>(DEPARTMENTS);
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = new Department();
+            department.setName("Department " + i);
+            departments.add(department);
+        }
+        new BulkPersister(sessionFactory, 50).persistAll(departments);
+        List<Employee> employees = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            Employee employee = new Employee();
+            employee.setName("Employee " + i);
+            employee.setDepartment(departments.get(i % DEPARTMENTS));
+            employees.add(employee);
+        }
+        new BulkPersister(sessionFactory, 50).persistAll(employees);
+        employeeIds = new ArrayList<>(EMPLOYEES);
+        for (Employee employee : employees) {
+            employeeIds.add(employee.getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Employee findById() {
+        Long id = employeeIds.get(ThreadLocalRandom.current().nextInt(employeeIds.size()));
+        try (Session session = sessionFactory.openSession()) {
+            return session.get(Employee.class, id);
+        }
+    }
+
+    @Benchmark
+    public List<Department> namedQuery() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createNamedQuery("Department.findAll", Department.class).getResultList();
+        }
+    }
+}
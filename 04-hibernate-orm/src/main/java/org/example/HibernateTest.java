@@ -1,5 +1,6 @@
 package main.java.org.example;
 
+import org.example.fetch.EmployeeFetchPlan;
 import org.example.models.*;
 import org.example.utils.HibernateUtil;
 import org.hibernate.Session;
@@ -82,7 +83,8 @@ public class HibernateTest {
         session = HibernateUtil.getSessionFactory().openSession();
         session.beginTransaction();
 
-        employee = session.get(Employee.class, 1);
+        // the department is read after the session is closed, so it is fetched along with the employee
+        employee = EmployeeFetchPlan.WITH_DEPARTMENT.find(session, 1L);
         manger = session.get(Manger.class, 1);
         manger2 = session.get(Manger.class, 2);
         partTimeEmployee = session.get(PartTimeEmployee.class, 4);
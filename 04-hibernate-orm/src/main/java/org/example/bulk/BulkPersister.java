@@ -0,0 +1,69 @@
+package org.example.bulk;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+/**
+ * Persists large numbers of entities with JDBC batching and a bounded persistence context.
+ * <p>
+ * Every {@code batchSize} entities the session is flushed, which sends the pending inserts as one JDBC batch
+ * per entity type, and cleared, so memory holds at most one batch of entities however many are saved.
+ * Pass an {@link Iterable} that creates the entities as it is iterated to keep the input out of memory too.
+ * Entities referenced by the saved ones must already be persistent; after a clear they are detached, which
+ * is fine for the foreign keys but means changes to them made afterwards are not saved.
+ */
+public class BulkPersister {
+
+    private final SessionFactory sessionFactory;
+    private final int batchSize;
+    private final int batchesPerTransaction;
+
+    // batchSize should match hibernate.jdbc.batch_size
+    public BulkPersister(SessionFactory sessionFactory, int batchSize) {
+        this(sessionFactory, batchSize, Integer.MAX_VALUE);
+    }
+
+    // commits every batchesPerTransaction batches, so a failure only rolls back the current transaction
+    public BulkPersister(SessionFactory sessionFactory, int batchSize, int batchesPerTransaction) {
+        if (batchSize < 1 || batchesPerTransaction < 1) {
+            throw new IllegalArgumentException("batchSize and batchesPerTransaction must be at least 1");
+        }
+        this.sessionFactory = sessionFactory;
+        this.batchSize = batchSize;
+        this.batchesPerTransaction = batchesPerTransaction;
+    }
+
+    // returns the number of entities persisted
+    public long persistAll(Iterable<?> entities) {
+        long persisted = 0;
+        try (Session session = sessionFactory.openSession()) {
+            session.setJdbcBatchSize(batchSize);
+            // a bulk load would only push the cached reference data out of the second-level cache
+            session.setCacheMode(CacheMode.IGNORE);
+            Transaction transaction = session.beginTransaction();
+            try {
+                int batches = 0;
+                for (Object entity : entities) {
+                    session.persist(entity);
+                    if (++persisted % batchSize == 0) {
+                        session.flush();
+                        session.clear();
+                        if (++batches % batchesPerTransaction == 0) {
+                            transaction.commit();
+                            transaction = session.beginTransaction();
+                        }
+                    }
+                }
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                throw e;
+            }
+        }
+        return persisted;
+    }
+}
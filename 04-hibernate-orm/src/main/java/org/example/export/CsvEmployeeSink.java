@@ -0,0 +1,94 @@
+package org.example.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// writes id,name,type,salary,department lines to a file through a FileChannel and a fixed-size direct buffer
+public class CsvEmployeeSink implements EmployeeSink, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String HEADER = "id,name,type,salary,department\n";
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder(128);
+
+    public CsvEmployeeSink(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        write(HEADER);
+    }
+
+    @Override
+    public void accept(EmployeeExportRow row) throws IOException {
+        line.setLength(0);
+        line.append(row.getId()).append(',');
+        appendField(row.getName());
+        line.append(',').append(row.getType()).append(',');
+        if (row.getSalary() != null) {
+            line.append(row.getSalary());
+        }
+        line.append(',');
+        appendField(row.getDepartmentName());
+        line.append('\n');
+        write(line);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            channel.close();
+        }
+    }
+
+    // quoted when it holds a separator, quote or line break, with quotes doubled
+    private void appendField(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
+
+    private void write(CharSequence text) throws IOException {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
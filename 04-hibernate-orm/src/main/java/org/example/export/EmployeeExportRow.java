@@ -0,0 +1,42 @@
+package org.example.export;
+
+// one employee as exported: the concrete type, the salary for the salaried subtypes, and the department name
+public final class EmployeeExportRow {
+
+    private final Long id;
+    private final String name;
+    private final String type;
+    private final Integer salary;
+    private final String departmentName;
+
+    public EmployeeExportRow(Long id, String name, String type, Integer salary, String departmentName) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.salary = salary;
+        this.departmentName = departmentName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    // simple name of the entity class, e.g. FullTimeEmployee
+    public String getType() {
+        return type;
+    }
+
+    // null for plain employees
+    public Integer getSalary() {
+        return salary;
+    }
+
+    // null for employees without a department
+    public String getDepartmentName() {
+        return departmentName;
+    }
+}
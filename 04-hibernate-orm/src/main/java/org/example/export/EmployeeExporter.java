@@ -0,0 +1,61 @@
+package org.example.export;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+
+import java.io.IOException;
+
+/**
+ * Streams every employee with its department name to an {@link EmployeeSink} in constant memory.
+ * <p>
+ * The export runs in a {@link StatelessSession}, which has no persistence context, and reads a scalar projection
+ * through forward-only {@link ScrollableResults}, so no entity is built or kept and only {@code fetchSize} rows are
+ * buffered by the driver. The JOINED hierarchy is resolved in the query itself: {@code type(e)} gives the concrete
+ * class and {@code treat} reads the salary from whichever subclass table the row has.
+ */
+public class EmployeeExporter {
+
+    private static final String EXPORT_QUERY = "select e.id, e.name, type(e), "
+            + "coalesce(treat(e as FullTimeEmployee).salary, treat(e as PartTimeEmployee).salary), d.name "
+            + "from Employee e left join e.department d "
+            + "order by e.id";
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    public EmployeeExporter(SessionFactory sessionFactory, int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be at least 1, was " + fetchSize);
+        }
+        this.sessionFactory = sessionFactory;
+        this.fetchSize = fetchSize;
+    }
+
+    // returns the number of employees exported
+    public long export(EmployeeSink sink) throws IOException {
+        long exported = 0;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            // PostgreSQL only honours the fetch size inside a transaction, otherwise it reads the whole result at once
+            Transaction transaction = session.beginTransaction();
+            try (ScrollableResults<Object[]> rows = session.createQuery(EXPORT_QUERY, Object[].class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (rows.next()) {
+                    Object[] row = rows.get();
+                    sink.accept(new EmployeeExportRow((Long) row[0], (String) row[1], ((Class<?>) row[2]).getSimpleName(),
+                            (Integer) row[3], (String) row[4]));
+                    exported++;
+                }
+            } catch (IOException | RuntimeException e) {
+                transaction.rollback();
+                throw e;
+            }
+            transaction.commit();
+        }
+        return exported;
+    }
+}
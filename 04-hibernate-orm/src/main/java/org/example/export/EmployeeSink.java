@@ -0,0 +1,9 @@
+package org.example.export;
+
+import java.io.IOException;
+
+// receives exported employees one at a time, in id order
+public interface EmployeeSink {
+
+    void accept(EmployeeExportRow row) throws IOException;
+}
@@ -0,0 +1,52 @@
+package org.example.fetch;
+
+import org.example.models.Employee;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
+import org.hibernate.query.SelectionQuery;
+
+/**
+ * What to load along with an {@link Employee}, backed by the entity graphs declared on it.
+ * <p>
+ * The associations of {@code Employee} are lazy, so a plain {@code session.get} or query loads the employee
+ * alone and anything read later costs another select. A call site that knows it needs the department or the
+ * managers picks the matching plan and gets them in the same select:
+ * <pre>{@code
+ * Employee employee = EmployeeFetchPlan.WITH_DEPARTMENT.find(session, id);
+ * List<Employee> employees = EmployeeFetchPlan.WITH_MANAGERS
+ *         .applyTo(session, session.createSelectionQuery("from Employee e where e.department.id = :id", Employee.class))
+ *         .setParameter("id", departmentId)
+ *         .getResultList();
+ * }</pre>
+ * The graphs are applied as fetch graphs: associations not named by the plan stay lazy.
+ */
+public enum EmployeeFetchPlan {
+    // the employee's own columns only
+    SUMMARY(Employee.SUMMARY_GRAPH),
+    WITH_DEPARTMENT(Employee.WITH_DEPARTMENT_GRAPH),
+    WITH_MANAGERS(Employee.WITH_MANAGERS_GRAPH);
+
+    private final String graphName;
+
+    EmployeeFetchPlan(String graphName) {
+        this.graphName = graphName;
+    }
+
+    public String getGraphName() {
+        return graphName;
+    }
+
+    @SuppressWarnings("unchecked")
+    public RootGraph<Employee> graph(Session session) {
+        return (RootGraph<Employee>) session.getEntityGraph(graphName);
+    }
+
+    public Employee find(Session session, Long id) {
+        return session.byId(Employee.class).withFetchGraph(graph(session)).load(id);
+    }
+
+    public SelectionQuery<Employee> applyTo(Session session, SelectionQuery<Employee> query) {
+        return query.setEntityGraph(graph(session), GraphSemantic.FETCH);
+    }
+}
@@ -1,29 +1,48 @@
 package org.example.models;
 import jakarta.persistence.*;
 import org.example.models.Manger;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+// cached so Department.employees and Manger.employeeList hits do not load their employees one by one;
+// the subclasses share this region
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// SINGLE_TABLE and TABLE_PER_CLASS are switched on by configuration, see org.example.utils.EmployeeInheritance
 @Inheritance(strategy = InheritanceType.JOINED)
-//@Inheritance(strategy = InheritanceType.TABLE_PER_CLASS)
-//@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
-//@DiscriminatorColumn(name = "employee_type", discriminatorType = DiscriminatorType.STRING)
+// fetch plans a call site picks through org.example.fetch.EmployeeFetchPlan; every association is lazy otherwise
+@NamedEntityGraph(name = Employee.SUMMARY_GRAPH)
+@NamedEntityGraph(name = Employee.WITH_DEPARTMENT_GRAPH, attributeNodes = @NamedAttributeNode("department"))
+@NamedEntityGraph(name = Employee.WITH_MANAGERS_GRAPH, attributeNodes = @NamedAttributeNode("mangerList"))
 public class Employee {
+    public static final String SUMMARY_GRAPH = "Employee.summary";
+    public static final String WITH_DEPARTMENT_GRAPH = "Employee.withDepartment";
+    public static final String WITH_MANAGERS_GRAPH = "Employee.withManagers";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence ids can be assigned before the insert, which IDENTITY cannot, so inserts can be batched;
+    // allocationSize ids are reserved per sequence call
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private Long id;
     @Column(name = "employee_name", length = 100, nullable = false)
     private String name;
-    @OneToOne
+    // lazy without a proxy once the class is bytecode enhanced
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cv_id")
     private Address employeeAddress;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
     private Department department;
 
-    @ManyToMany(mappedBy = "employeeList", cascade = CascadeType.ALL,fetch = FetchType.EAGER)
+    // lazy, and loaded for up to 50 employees of the session per select once one of them is read
+    @BatchSize(size = 50)
+    @ManyToMany(mappedBy = "employeeList", cascade = CascadeType.ALL)
     private List<Manger> mangerList=new ArrayList<>();
 
     // setter and getter
@@ -52,6 +71,10 @@ public class Employee {
         this.employeeAddress = employeeCV;
     }
 
+    public Long getId() {
+        return id;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
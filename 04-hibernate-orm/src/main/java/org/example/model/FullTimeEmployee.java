@@ -4,7 +4,6 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-//@DiscriminatorValue("FT_EMPLOYEE")
 public class FullTimeEmployee extends Employee{
     private int salary;
 
@@ -5,7 +5,6 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-//@DiscriminatorValue("PT_EMPLOYEE")
 public class PartTimeEmployee extends Employee{
     private int salary;
 
@@ -0,0 +1,129 @@
+package org.example.stats;
+
+import org.hibernate.stat.Statistics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+// reads the statistics only when an attribute is read, so nothing is added to the sessions' work
+class HibernateStatistics implements HibernateStatisticsMXBean {
+
+    private final Statistics statistics;
+
+    HibernateStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    @Override
+    public void setStatisticsEnabled(boolean enabled) {
+        statistics.setStatisticsEnabled(enabled);
+    }
+
+    @Override
+    public void clear() {
+        statistics.clear();
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return statistics.getSessionOpenCount();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        return statistics.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetchCount() {
+        return statistics.getEntityFetchCount();
+    }
+
+    @Override
+    public long getCollectionFetchCount() {
+        return statistics.getCollectionFetchCount();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return statistics.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTime() {
+        return statistics.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return statistics.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public Map<String, Long> getEntityLoadCounts() {
+        return byName(statistics.getEntityNames(), name -> statistics.getEntityStatistics(name).getLoadCount());
+    }
+
+    @Override
+    public Map<String, Long> getEntityFetchCounts() {
+        return byName(statistics.getEntityNames(), name -> statistics.getEntityStatistics(name).getFetchCount());
+    }
+
+    @Override
+    public Map<String, Long> getEntityInsertCounts() {
+        return byName(statistics.getEntityNames(), name -> statistics.getEntityStatistics(name).getInsertCount());
+    }
+
+    @Override
+    public Map<String, Long> getCollectionLoadCounts() {
+        return byName(statistics.getCollectionRoleNames(), role -> statistics.getCollectionStatistics(role).getLoadCount());
+    }
+
+    @Override
+    public Map<String, Long> getCollectionFetchCounts() {
+        return byName(statistics.getCollectionRoleNames(), role -> statistics.getCollectionStatistics(role).getFetchCount());
+    }
+
+    @Override
+    public Map<String, Long> getQueryTimeHistogram() {
+        if (statistics instanceof QueryTimingStatistics timing) {
+            return timing.getQueryTimeHistogram().getCounts();
+        }
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Long> queryTimeHistogram(String query) {
+        if (statistics instanceof QueryTimingStatistics timing) {
+            QueryTimeHistogram histogram = timing.getQueryTimeHistogram(query);
+            if (histogram != null) {
+                return histogram.getCounts();
+            }
+        }
+        return Map.of();
+    }
+
+    @Override
+    public Map<String, Long> getSlowQueries() {
+        return new TreeMap<>(statistics.getSlowQueries());
+    }
+
+    private static Map<String, Long> byName(String[] names, Function<String, Long> count) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (String name : names) {
+            counts.put(name, count.apply(name));
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.stats;
+
+import java.util.Map;
+
+/**
+ * The statistics of one {@code SessionFactory} as JMX attributes, registered by {@link StatisticsRegistration}.
+ * <p>
+ * Counts by entity are keyed by entity name, counts by collection by role, e.g.
+ * {@code org.example.models.Department.employees}. A collection whose fetch count grows with the number of its
+ * owners loaded is being initialized one owner at a time, an N+1 select.
+ */
+public interface HibernateStatisticsMXBean {
+
+    boolean isStatisticsEnabled();
+
+    void setStatisticsEnabled(boolean enabled);
+
+    // resets every count and histogram
+    void clear();
+
+    long getSessionOpenCount();
+
+    long getPrepareStatementCount();
+
+    long getEntityLoadCount();
+
+    long getEntityFetchCount();
+
+    long getCollectionFetchCount();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTime();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    Map<String, Long> getEntityLoadCounts();
+
+    Map<String, Long> getEntityFetchCounts();
+
+    Map<String, Long> getEntityInsertCounts();
+
+    Map<String, Long> getCollectionLoadCounts();
+
+    Map<String, Long> getCollectionFetchCounts();
+
+    // executions of all queries by bucket of milliseconds
+    Map<String, Long> getQueryTimeHistogram();
+
+    // executions of the given HQL or SQL query by bucket of milliseconds, empty when it has no histogram
+    Map<String, Long> queryTimeHistogram(String query);
+
+    // statements slower than hibernate.log_slow_query, with the longest time each took in milliseconds
+    Map<String, Long> getSlowQueries();
+}
@@ -0,0 +1,56 @@
+package org.example.stats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts query executions by how long they took, in fixed buckets of milliseconds.
+ * <p>
+ * Recording is one {@link LongAdder} increment, so concurrent sessions do not contend on it.
+ */
+public final class QueryTimeHistogram {
+
+    // upper bounds of the buckets in milliseconds, inclusive; a last bucket takes everything slower
+    static final long[] BOUNDS = {1, 5, 10, 50, 100, 500, 1000, 5000};
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+
+    QueryTimeHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long millis) {
+        int bucket = 0;
+        while (bucket < BOUNDS.length && millis > BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+    }
+
+    void clear() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    // the count of every bucket in ascending order, labelled "<= 1 ms" up to "> 5000 ms"
+    public Map<String, Long> getCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < BOUNDS.length; i++) {
+            counts.put("<= " + BOUNDS[i] + " ms", buckets[i].sum());
+        }
+        counts.put("> " + BOUNDS[BOUNDS.length - 1] + " ms", buckets[BOUNDS.length].sum());
+        return counts;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.stats;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.hibernate.stat.internal.StatisticsImpl;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate's statistics, plus a histogram of query execution times over all queries and one per query string.
+ * <p>
+ * Hibernate already times every HQL and native query it executes and reports it through
+ * {@link #queryExecuted(String, int, long)}, so the histograms cost no extra clock reads. Like Hibernate's own
+ * query statistics, only as many query strings as {@value AvailableSettings#QUERY_STATISTICS_MAX_SIZE} allows get a
+ * histogram of their own; later ones are only counted in the overall histogram.
+ * <p>
+ * {@link StatisticsRegistration} exports them through JMX once the factory is built.
+ * <p>
+ * {@link StatisticsImpl} is internal, but a {@code StatisticsFactory} has to return a whole
+ * {@code StatisticsImplementor}, and {@link #queryExecuted(String, int, long)} is the only place Hibernate reports
+ * query times; there is no listener for it. Extending it keeps Hibernate's own counters without reimplementing
+ * every one of them, at the cost of checking this class on each Hibernate upgrade.
+ */
+public class QueryTimingStatistics extends StatisticsImpl {
+
+    private final int maxQueries;
+    private final QueryTimeHistogram queryTimes = new QueryTimeHistogram();
+    private final ConcurrentHashMap<String, QueryTimeHistogram> queryTimesByQuery = new ConcurrentHashMap<>();
+
+    public QueryTimingStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+        this.maxQueries = sessionFactory.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(AvailableSettings.QUERY_STATISTICS_MAX_SIZE, StandardConverters.INTEGER,
+                        Statistics.DEFAULT_QUERY_STATISTICS_MAX_SIZE);
+    }
+
+    @Override
+    public void queryExecuted(String query, int rows, long time) {
+        super.queryExecuted(query, rows, time);
+        queryTimes.record(time);
+        QueryTimeHistogram histogram = queryTimesByQuery.get(query);
+        if (histogram == null && queryTimesByQuery.size() < maxQueries) {
+            histogram = queryTimesByQuery.computeIfAbsent(query, ignored -> new QueryTimeHistogram());
+        }
+        if (histogram != null) {
+            histogram.record(time);
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        queryTimes.clear();
+        queryTimesByQuery.clear();
+    }
+
+    // every query executed since the statistics were enabled or cleared
+    public QueryTimeHistogram getQueryTimeHistogram() {
+        return queryTimes;
+    }
+
+    // the executions of one query string, null when it has no histogram of its own
+    public QueryTimeHistogram getQueryTimeHistogram(String query) {
+        return queryTimesByQuery.get(query);
+    }
+}
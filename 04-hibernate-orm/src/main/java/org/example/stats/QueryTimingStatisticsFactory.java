@@ -0,0 +1,14 @@
+package org.example.stats;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+// named by hibernate.stats.factory in hibernate.cfg.xml
+public class QueryTimingStatisticsFactory implements StatisticsFactory {
+
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new QueryTimingStatistics(sessionFactory);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.stats;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Registers the statistics of a {@code SessionFactory} with the platform MBean server, as
+ * {@code org.example:type=HibernateStatistics,name=<name>}, from when it has been built until it is closed.
+ * <p>
+ * The name is the {@value #NAME_PROPERTY} property, or the factory's uuid when it is not set. A second factory open
+ * under the same name gets its uuid appended.
+ */
+public final class StatisticsRegistration {
+
+    public static final String NAME_PROPERTY = "statistics.jmx.name";
+
+    private StatisticsRegistration() {
+    }
+
+    public static ObjectName objectName(String name) throws JMException {
+        return new ObjectName("org.example:type=HibernateStatistics,name=" + ObjectName.quote(name));
+    }
+
+    // called once the factory is built, so the MBean never exposes a half-built factory; returns the factory
+    public static <T extends SessionFactory> T register(T sessionFactory) {
+        SessionFactoryImplementor implementor = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        ObjectName registered = register(implementor, implementor.getStatistics());
+        // the factory has finished notifying its observers of its creation, so one can be added now
+        implementor.addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryClosed(SessionFactory factory) {
+                unregister(registered);
+            }
+        });
+        return sessionFactory;
+    }
+
+    // null when the statistics could not be registered; the factory works without them
+    private static ObjectName register(SessionFactoryImplementor sessionFactory, Statistics statistics) {
+        Object configured = sessionFactory.getProperties().get(NAME_PROPERTY);
+        String name = configured == null ? sessionFactory.getUuid() : configured.toString();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        HibernateStatistics mbean = new HibernateStatistics(statistics);
+        try {
+            try {
+                return server.registerMBean(mbean, objectName(name)).getObjectName();
+            } catch (InstanceAlreadyExistsException e) {
+                return server.registerMBean(mbean, objectName(name + "-" + sessionFactory.getUuid())).getObjectName();
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register the statistics of session factory " + name + " with JMX: " + e);
+            return null;
+        }
+    }
+
+    private static void unregister(ObjectName registered) {
+        if (registered == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+        } catch (JMException e) {
+            // already gone
+        }
+    }
+}
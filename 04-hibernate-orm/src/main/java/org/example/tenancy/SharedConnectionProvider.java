@@ -0,0 +1,50 @@
+package org.example.tenancy;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// hands every tenant's SessionFactory connections from the one pool. It is deliberately not Stoppable, so
+// closing a tenant's factory leaves the pool open for the others; TenantRegistry closes it.
+final class SharedConnectionProvider implements ConnectionProvider {
+
+    private final DataSource dataSource;
+
+    SharedConnectionProvider(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this) || unwrapType.isInstance(dataSource);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (unwrapType.isInstance(this)) {
+            return unwrapType.cast(this);
+        }
+        if (unwrapType.isInstance(dataSource)) {
+            return unwrapType.cast(dataSource);
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+}
@@ -0,0 +1,361 @@
+package org.example.tenancy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.stats.StatisticsRegistration;
+import org.example.utils.EmployeeInheritance;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionEventListener;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.net.URL;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Hands out sessions for customers kept in one database schema each, over one shared connection pool.
+ * <p>
+ * Every tenant gets its own {@link SessionFactory}, mapped from {@code hibernate.cfg.xml} with
+ * {@code hibernate.default_schema} set to the tenant id, so all of its statements name the tenant's schema.
+ * A factory is bootstrapped by the first {@link #openSession(String)} for its tenant: concurrent callers for
+ * the same tenant wait for that one bootstrap, and different tenants bootstrap in parallel on their callers'
+ * threads. The bootstrap creates or updates the tenant's schema as the builder's {@code schemaAction} says.
+ * <p>
+ * A tenant with no open session for the idle timeout has its factory closed, and bootstraps again the next
+ * time it is used; a session opened while the factory is being closed waits for the close and then bootstraps
+ * it again. Each tenant has a second-level cache of its own, since ids repeat across schemas.
+ */
+public class TenantRegistry implements AutoCloseable {
+
+    // the tenant id is used as a schema name, so it has to be a plain SQL identifier
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z][A-Za-z0-9_]{0,62}");
+    private static final long MIN_EVICTION_PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Map<String, String> properties;
+    private final String schemaAction;
+    private final long idleTimeoutNanos;
+    private final HikariDataSource pool;
+    private final SharedConnectionProvider connectionProvider;
+    private final ConcurrentHashMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private TenantRegistry(Builder builder) {
+        this.properties = Map.copyOf(builder.properties);
+        this.schemaAction = builder.schemaAction;
+        this.idleTimeoutNanos = builder.idleTimeout.toNanos();
+
+        // the pool connects with the settings of hibernate.cfg.xml, as overridden through the builder
+        Configuration configuration = configuration();
+        HikariConfig poolConfig = new HikariConfig();
+        poolConfig.setPoolName("tenants");
+        poolConfig.setJdbcUrl(connectionSetting(configuration, AvailableSettings.JAKARTA_JDBC_URL, "hibernate.connection.url"));
+        poolConfig.setUsername(connectionSetting(configuration, AvailableSettings.JAKARTA_JDBC_USER, "hibernate.connection.username"));
+        poolConfig.setPassword(connectionSetting(configuration, AvailableSettings.JAKARTA_JDBC_PASSWORD, "hibernate.connection.password"));
+        poolConfig.setMaximumPoolSize(builder.maximumPoolSize);
+        this.pool = new HikariDataSource(poolConfig);
+        this.connectionProvider = new SharedConnectionProvider(pool);
+
+        long period = Math.max(idleTimeoutNanos / 2, MIN_EVICTION_PERIOD_NANOS);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tenant-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(this::evictIdleTenants, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    // the session must be closed for the tenant to count as idle again
+    public Session openSession(String tenantId) {
+        if (tenantId == null || !TENANT_ID.matcher(tenantId).matches()) {
+            throw new IllegalArgumentException("Tenant id must be a letter followed by up to 62 letters, digits or underscores, was " + tenantId);
+        }
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("TenantRegistry is closed");
+            }
+            Tenant tenant = tenants.computeIfAbsent(tenantId, Tenant::new);
+            if (tenant.acquire()) {
+                try {
+                    return tenant.sessionFactory()
+                            .withOptions()
+                            .eventListeners(new ReleaseOnClose(tenant))
+                            .openSession();
+                } catch (RuntimeException e) {
+                    tenant.release();
+                    throw e;
+                }
+            }
+            // evicted after the lookup: wait until its factory is closed and it has left the map, then bootstrap anew
+            tenant.awaitRetired();
+        }
+    }
+
+    // the tenants whose factory is bootstrapped or bootstrapping
+    public Set<String> getActiveTenants() {
+        return Set.copyOf(tenants.keySet());
+    }
+
+    // runs periodically on the evictor thread, public so callers can force a pass
+    public void evictIdleTenants() {
+        long now = System.nanoTime();
+        for (Tenant tenant : tenants.values()) {
+            if (tenant.evictIfIdle(now)) {
+                tenant.retire();
+            }
+        }
+    }
+
+    // sessions still open are cut off from the pool
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        for (Tenant tenant : tenants.values()) {
+            tenant.retire();
+        }
+        pool.close();
+    }
+
+    private Configuration configuration() {
+        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+        properties.forEach(configuration::setProperty);
+        return configuration;
+    }
+
+    // the JPA connection settings, or the hibernate.connection ones hibernate.cfg.xml is written with: only the JPA
+    // bootstrap maps the former onto the latter, and the pool is configured here rather than by Hibernate
+    private static String connectionSetting(Configuration configuration, String name, String cfgXmlName) {
+        String value = configuration.getProperty(name);
+        return value != null ? value : configuration.getProperty(cfgXmlName);
+    }
+
+    private SessionFactory bootstrap(String tenantId) {
+        Configuration configuration = configuration();
+        configuration.getProperties().put(AvailableSettings.CONNECTION_PROVIDER, connectionProvider);
+        configuration.setProperty(AvailableSettings.DEFAULT_SCHEMA, tenantId);
+        configuration.setProperty(StatisticsRegistration.NAME_PROPERTY, "tenant-" + tenantId);
+        configuration.setProperty(AvailableSettings.JAKARTA_HBM2DDL_CREATE_SCHEMAS, "true");
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, schemaAction(tenantId));
+        if (usesRegionFactory(configuration)) {
+            configuration.getProperties().put(ConfigSettings.CACHE_MANAGER, cacheManager(tenantId, configuration));
+        }
+        return StatisticsRegistration.register(
+                EmployeeInheritance.configured(configuration).applyTo(configuration).buildSessionFactory());
+    }
+
+    // the schema migrator looks existing sequences up by name alone, so updating a schema that does not exist yet
+    // would take the sequences of other tenants for its own and skip them: a new schema is created instead
+    private String schemaAction(String tenantId) {
+        if (!"update".equalsIgnoreCase(schemaAction) || schemaExists(tenantId)) {
+            return schemaAction;
+        }
+        return "create-only";
+    }
+
+    private boolean schemaExists(String tenantId) {
+        try (Connection connection = pool.getConnection();
+             ResultSet schemas = connection.getMetaData().getSchemas()) {
+            while (schemas.next()) {
+                if (tenantId.equalsIgnoreCase(schemas.getString("TABLE_SCHEM"))) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (SQLException e) {
+            throw new HibernateException("Could not look up the schema of tenant " + tenantId, e);
+        }
+    }
+
+    private static boolean usesRegionFactory(Configuration configuration) {
+        return !"false".equalsIgnoreCase(configuration.getProperty(AvailableSettings.USE_SECOND_LEVEL_CACHE))
+                || "true".equalsIgnoreCase(configuration.getProperty(AvailableSettings.USE_QUERY_CACHE));
+    }
+
+    // a cache manager of the tenant's own, with the regions of ehcache.xml: ids repeat across tenants, and
+    // closing a factory closes its cache manager, which JCache would otherwise share between all of them
+    private CacheManager cacheManager(String tenantId, Configuration configuration) {
+        String resource = configuration.getProperty(ConfigSettings.CONFIG_URI);
+        URL config = TenantRegistry.class.getClassLoader().getResource(resource);
+        if (config == null) {
+            throw new HibernateException("Cache configuration " + resource + " not found on the classpath");
+        }
+        EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        URI uri = URI.create("tenants:" + Integer.toHexString(System.identityHashCode(this)) + ":" + tenantId);
+        return provider.getCacheManager(uri, new XmlConfiguration(config));
+    }
+
+    private final class Tenant {
+        final String id;
+        final FutureTask<SessionFactory> bootstrap;
+        // counted down once the factory is closed and the tenant has left the map
+        final CountDownLatch retired = new CountDownLatch(1);
+        final AtomicBoolean closed = new AtomicBoolean();
+        // guarded by this
+        int openSessions;
+        long lastUsedNanos;
+        boolean evicted;
+
+        Tenant(String id) {
+            this.id = id;
+            this.bootstrap = new FutureTask<>(() -> bootstrap(id));
+        }
+
+        synchronized boolean acquire() {
+            if (evicted) {
+                return false;
+            }
+            openSessions++;
+            lastUsedNanos = System.nanoTime();
+            return true;
+        }
+
+        synchronized void release() {
+            openSessions--;
+            lastUsedNanos = System.nanoTime();
+        }
+
+        synchronized boolean evictIfIdle(long now) {
+            if (evicted || openSessions > 0 || now - lastUsedNanos < idleTimeoutNanos) {
+                return false;
+            }
+            evicted = true;
+            return true;
+        }
+
+        // the first caller runs the bootstrap, the others wait for it
+        SessionFactory sessionFactory() {
+            bootstrap.run();
+            try {
+                return bootstrap.get();
+            } catch (ExecutionException e) {
+                // a failed bootstrap is not cached, the next openSession tries again
+                retire();
+                throw new HibernateException("Bootstrapping tenant " + id + " failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HibernateException("Interrupted while waiting for tenant " + id + " to bootstrap", e);
+            }
+        }
+
+        // called by the evictor, a failed bootstrap and TenantRegistry.close, possibly at once for the same tenant
+        void retire() {
+            synchronized (this) {
+                evicted = true;
+            }
+            try {
+                close();
+            } finally {
+                tenants.remove(id, this);
+                retired.countDown();
+            }
+        }
+
+        void awaitRetired() {
+            try {
+                retired.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new HibernateException("Interrupted while waiting for tenant " + id + " to be evicted", e);
+            }
+        }
+
+        // closes the factory exactly once
+        private void close() {
+            if (!bootstrap.isDone() || !closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                bootstrap.get().close();
+            } catch (ExecutionException | InterruptedException | RuntimeException e) {
+                // nothing to close when the bootstrap failed
+            }
+        }
+    }
+
+    private static final class ReleaseOnClose implements SessionEventListener {
+        private final transient Tenant tenant;
+
+        ReleaseOnClose(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        @Override
+        public void end() {
+            tenant.release();
+        }
+    }
+
+    public static class Builder {
+        private final Map<String, String> properties = new HashMap<>();
+        private String schemaAction = "update";
+        private Duration idleTimeout = Duration.ofMinutes(30);
+        private int maximumPoolSize = 10;
+
+        private Builder() {
+        }
+
+        // overrides a property of hibernate.cfg.xml for the pool and every tenant
+        public Builder property(String name, String value) {
+            properties.put(name, value);
+            return this;
+        }
+
+        // hibernate.hbm2ddl.auto for each tenant's schema; the create-drop of hibernate.cfg.xml would drop a
+        // tenant's tables whenever it is evicted
+        public Builder schemaAction(String schemaAction) {
+            this.schemaAction = schemaAction;
+            return this;
+        }
+
+        public Builder idleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+            return this;
+        }
+
+        public Builder maximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+            return this;
+        }
+
+        public TenantRegistry build() {
+            if (schemaAction == null || schemaAction.isBlank()) {
+                throw new IllegalArgumentException("schemaAction must be set");
+            }
+            if (idleTimeout == null || idleTimeout.isNegative() || idleTimeout.isZero()) {
+                throw new IllegalArgumentException("idleTimeout must be positive");
+            }
+            if (maximumPoolSize < 1) {
+                throw new IllegalArgumentException("maximumPoolSize must be at least 1");
+            }
+            return new TenantRegistry(this);
+        }
+    }
+}
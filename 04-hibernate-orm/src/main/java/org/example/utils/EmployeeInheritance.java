@@ -0,0 +1,48 @@
+package org.example.utils;
+
+import org.hibernate.cfg.Configuration;
+
+/**
+ * The inheritance strategy the {@code Employee} hierarchy is mapped with.
+ * <p>
+ * The annotations on {@code Employee} map it {@link #JOINED}. The other strategies are applied by adding an
+ * {@code orm.xml} mapping file that overrides them, so switching needs no source change: set
+ * {@value #PROPERTY} as a system property or in {@code hibernate.cfg.xml}. The schema has to be created for
+ * the strategy in use, which {@code hibernate.hbm2ddl.auto} does.
+ */
+public enum EmployeeInheritance {
+    // a table per class holding its own columns, joined to the employee table
+    JOINED(null),
+    // one table with a discriminator column and the columns of every subclass
+    SINGLE_TABLE("META-INF/employee-single-table.orm.xml"),
+    // a table per concrete class holding all of its columns, polymorphic queries read their union
+    TABLE_PER_CLASS("META-INF/employee-table-per-class.orm.xml");
+
+    public static final String PROPERTY = "employee.inheritance";
+
+    private final String mappingFile;
+
+    EmployeeInheritance(String mappingFile) {
+        this.mappingFile = mappingFile;
+    }
+
+    // the system property wins over hibernate.cfg.xml, JOINED when neither is set
+    public static EmployeeInheritance configured(Configuration configuration) {
+        String value = System.getProperty(PROPERTY, configuration.getProperty(PROPERTY));
+        if (value == null || value.isBlank()) {
+            return JOINED;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(PROPERTY + " must be one of JOINED, SINGLE_TABLE or TABLE_PER_CLASS, was " + value);
+        }
+    }
+
+    public Configuration applyTo(Configuration configuration) {
+        if (mappingFile != null) {
+            configuration.addResource(mappingFile);
+        }
+        return configuration;
+    }
+}
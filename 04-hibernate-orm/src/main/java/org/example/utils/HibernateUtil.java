@@ -1,15 +1,22 @@
 package org.example.utils;
+import org.example.stats.StatisticsRegistration;
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
 
 public class HibernateUtil {
 
-    private static final SessionFactory sessionFactory;
+    // built on the first getSessionFactory() call rather than when the class is loaded
+    private static final class Holder {
+        private static final SessionFactory sessionFactory = buildSessionFactory();
+    }
 
-    static {
+    private static SessionFactory buildSessionFactory() {
         try {
-            // Create the SessionFactory from hibernate.cfg.xml
-            sessionFactory = new Configuration().configure("hibernate.cfg.xml").buildSessionFactory();
+            // Create the SessionFactory from hibernate.cfg.xml, with the Employee hierarchy mapped as configured,
+            // and its statistics exported through JMX
+            Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+            return StatisticsRegistration.register(
+                    EmployeeInheritance.configured(configuration).applyTo(configuration).buildSessionFactory());
         } catch (Throwable ex) {
             System.err.println("Initial SessionFactory creation failed." + ex);
             throw new ExceptionInInitializerError(ex);
@@ -17,6 +24,6 @@ public class HibernateUtil {
     }
 
     public static SessionFactory getSessionFactory() {
-        return sessionFactory;
+        return Holder.sessionFactory;
     }
 }
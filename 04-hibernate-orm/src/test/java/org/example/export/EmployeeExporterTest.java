@@ -0,0 +1,100 @@
+package org.example.export;
+
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.example.models.FullTimeEmployee;
+import org.example.models.PartTimeEmployee;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// exports a mixed JOINED hierarchy from an in-memory H2 database; a fetch size of 2 makes the scroll span several fetches
+class EmployeeExporterTest {
+
+    private static SessionFactory sessionFactory;
+    private static Long[] ids;
+
+    @BeforeAll
+    public static void createEmployees() {
+        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+        configuration.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:EmployeeExporterTest;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.connection.username", "sa");
+        configuration.setProperty("hibernate.connection.password", "");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.cache.use_second_level_cache", "false");
+        configuration.setProperty("hibernate.cache.use_query_cache", "false");
+        sessionFactory = configuration.buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            Department department = new Department();
+            department.setName("sales, east");
+            session.persist(department);
+
+            Employee plain = employee(new Employee(), "plain", department);
+            FullTimeEmployee fullTime = employee(new FullTimeEmployee(), "full \"ft\" time", department);
+            fullTime.setSalary(5000);
+            PartTimeEmployee partTime = employee(new PartTimeEmployee(), "part time", department);
+            partTime.setSalary(1200);
+            // no department, so the left join yields a null name as well
+            Employee unassigned = employee(new Employee(), "unassigned", null);
+            for (Employee employee : Arrays.asList(plain, fullTime, partTime, unassigned)) {
+                session.persist(employee);
+            }
+            session.getTransaction().commit();
+            ids = new Long[]{plain.getId(), fullTime.getId(), partTime.getId(), unassigned.getId()};
+        }
+    }
+
+    @AfterAll
+    public static void close() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void whenHierarchyIsMixed_EveryRowCarriesItsTypeAndSalary(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("employees.csv");
+        long exported;
+        try (CsvEmployeeSink sink = new CsvEmployeeSink(file)) {
+            exported = new EmployeeExporter(sessionFactory, 2).export(sink);
+        }
+
+        assertEquals(4, exported);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(Arrays.asList(
+                "id,name,type,salary,department",
+                // neither treat(...).salary matches a plain employee, so the salary field stays empty
+                ids[0] + ",plain,Employee,,\"sales, east\"",
+                ids[1] + ",\"full \"\"ft\"\" time\",FullTimeEmployee,5000,\"sales, east\"",
+                ids[2] + ",part time,PartTimeEmployee,1200,\"sales, east\"",
+                ids[3] + ",unassigned,Employee,,"), lines);
+    }
+
+    @Test
+    public void whenSinkCollectsRows_SalaryIsNullOnlyForPlainEmployees() throws IOException {
+        StringBuilder types = new StringBuilder();
+        new EmployeeExporter(sessionFactory, 2).export(row -> types.append(row.getType())
+                .append('=').append(row.getSalary()).append(';'));
+        assertEquals("Employee=null;FullTimeEmployee=5000;PartTimeEmployee=1200;Employee=null;", types.toString());
+    }
+
+    private static <T extends Employee> T employee(T employee, String name, Department department) {
+        employee.setName(name);
+        employee.setDepartment(department);
+        return employee;
+    }
+}
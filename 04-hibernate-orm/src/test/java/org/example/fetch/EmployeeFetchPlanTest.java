@@ -0,0 +1,169 @@
+package org.example.fetch;
+
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.example.models.Manger;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// counts the selects behind each fetch plan on an in-memory H2 database; the second-level cache is off so
+// every load reaches the database
+class EmployeeFetchPlanTest {
+
+    private static final int DEPARTMENTS = 3;
+    private static final int EMPLOYEES_PER_DEPARTMENT = 10;
+    private static final int MANAGERS = 4;
+
+    private static SessionFactory sessionFactory;
+    private static Long firstDepartmentId;
+    private static Long firstEmployeeId;
+
+    @BeforeAll
+    public static void createEmployees() {
+        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+        configuration.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:EmployeeFetchPlanTest;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.connection.username", "sa");
+        configuration.setProperty("hibernate.connection.password", "");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.show_sql", "false");
+        configuration.setProperty("hibernate.cache.use_second_level_cache", "false");
+        configuration.setProperty("hibernate.cache.use_query_cache", "false");
+        sessionFactory = configuration.buildSessionFactory();
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            Manger[] managers = new Manger[MANAGERS];
+            for (int m = 0; m < MANAGERS; m++) {
+                managers[m] = new Manger();
+                managers[m].setName("manager " + m);
+            }
+            for (int d = 0; d < DEPARTMENTS; d++) {
+                Department department = new Department();
+                department.setName("department " + d);
+                for (int e = 0; e < EMPLOYEES_PER_DEPARTMENT; e++) {
+                    Employee employee = new Employee();
+                    employee.setName("employee " + d + "-" + e);
+                    employee.setDepartment(department);
+                    department.getEmployees().add(employee);
+                    // every employee has two managers
+                    managers[e % MANAGERS].getEmployeeList().add(employee);
+                    managers[(e + 1) % MANAGERS].getEmployeeList().add(employee);
+                }
+                session.persist(department);
+                if (d == 0) {
+                    firstDepartmentId = department.getId();
+                    firstEmployeeId = department.getEmployees().get(0).getId();
+                }
+            }
+            for (Manger manager : managers) {
+                session.persist(manager);
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterAll
+    public static void close() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    public void clearStatistics() {
+        sessionFactory.getStatistics().clear();
+    }
+
+    @Test
+    public void whenLoadingDepartmentEmployees_ManagersAreNotSelected() {
+        try (Session session = sessionFactory.openSession()) {
+            Department department = session.get(Department.class, firstDepartmentId);
+            assertEquals(EMPLOYEES_PER_DEPARTMENT, department.getEmployees().size());
+            for (Employee employee : department.getEmployees()) {
+                assertFalse(Hibernate.isInitialized(employee.getMangerList()));
+            }
+        }
+        // the department, then its employees
+        assertEquals(2, selects());
+    }
+
+    @Test
+    public void whenReadingManagersOfEveryEmployee_TheyAreBatchFetched() {
+        try (Session session = sessionFactory.openSession()) {
+            List<Employee> employees = session.createSelectionQuery("from Employee", Employee.class).getResultList();
+            assertEquals(DEPARTMENTS * EMPLOYEES_PER_DEPARTMENT, employees.size());
+            for (Employee employee : employees) {
+                assertEquals(2, employee.getMangerList().size());
+            }
+        }
+        // one select for the employees and one for the managers of all 30, where EAGER took 1 + 30
+        assertEquals(2, selects());
+    }
+
+    @Test
+    public void whenReadingDepartmentOfEveryEmployee_TheyAreBatchFetched() {
+        try (Session session = sessionFactory.openSession()) {
+            List<Employee> employees = session.createSelectionQuery("from Employee", Employee.class).getResultList();
+            for (Employee employee : employees) {
+                assertTrue(employee.getDepartment().getName().startsWith("department"));
+            }
+        }
+        assertEquals(2, selects());
+    }
+
+    @Test
+    public void whenFindingSummary_AssociationsStayLazy() {
+        try (Session session = sessionFactory.openSession()) {
+            Employee employee = EmployeeFetchPlan.SUMMARY.find(session, firstEmployeeId);
+            assertFalse(Hibernate.isInitialized(employee.getDepartment()));
+            assertFalse(Hibernate.isInitialized(employee.getMangerList()));
+        }
+        assertEquals(1, selects());
+    }
+
+    @Test
+    public void whenFindingWithDepartment_DepartmentComesInTheSameSelect() {
+        Employee employee;
+        try (Session session = sessionFactory.openSession()) {
+            employee = EmployeeFetchPlan.WITH_DEPARTMENT.find(session, firstEmployeeId);
+        }
+        assertTrue(Hibernate.isInitialized(employee.getDepartment()));
+        assertEquals("department 0", employee.getDepartment().getName());
+        assertFalse(Hibernate.isInitialized(employee.getMangerList()));
+        assertEquals(1, selects());
+    }
+
+    @Test
+    public void whenQueryingWithManagers_ManagersComeInTheSameSelect() {
+        List<Employee> employees;
+        try (Session session = sessionFactory.openSession()) {
+            employees = EmployeeFetchPlan.WITH_MANAGERS
+                    .applyTo(session, session.createSelectionQuery("from Employee e where e.department.id = :id", Employee.class))
+                    .setParameter("id", firstDepartmentId)
+                    .getResultList();
+        }
+        assertEquals(EMPLOYEES_PER_DEPARTMENT, employees.size());
+        for (Employee employee : employees) {
+            assertTrue(Hibernate.isInitialized(employee.getMangerList()));
+            assertEquals(2, employee.getMangerList().size());
+        }
+        assertEquals(1, selects());
+    }
+
+    private static long selects() {
+        Statistics statistics = sessionFactory.getStatistics();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.stats;
+
+import org.example.models.Department;
+import org.example.models.Employee;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// reads the statistics of an in-memory H2 database through the MBean the factory registers
+class HibernateStatisticsTest {
+
+    private static final String NAME = "HibernateStatisticsTest";
+    private static final int DEPARTMENTS = 3;
+    private static final int EMPLOYEES_PER_DEPARTMENT = 4;
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    private SessionFactory sessionFactory;
+    private HibernateStatisticsMXBean mbean;
+
+    @BeforeEach
+    public void createEmployees() throws JMException {
+        sessionFactory = StatisticsRegistration.register(configuration().buildSessionFactory());
+        mbean = JMX.newMXBeanProxy(server, StatisticsRegistration.objectName(NAME), HibernateStatisticsMXBean.class);
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int d = 0; d < DEPARTMENTS; d++) {
+                Department department = new Department();
+                department.setName("department " + d);
+                session.persist(department);
+                for (int e = 0; e < EMPLOYEES_PER_DEPARTMENT; e++) {
+                    Employee employee = new Employee();
+                    employee.setName("employee " + d + "-" + e);
+                    employee.setDepartment(department);
+                    session.persist(employee);
+                }
+            }
+            session.getTransaction().commit();
+        }
+    }
+
+    @AfterEach
+    public void closeSessionFactory() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void whenEntitiesAreSaved_InsertCountsAreKeyedByEntity() {
+        Map<String, Long> inserts = mbean.getEntityInsertCounts();
+        assertEquals(DEPARTMENTS, inserts.get(Department.class.getName()));
+        assertEquals(DEPARTMENTS * EMPLOYEES_PER_DEPARTMENT, inserts.get(Employee.class.getName()));
+    }
+
+    @Test
+    public void whenCollectionsAreInitialized_FetchCountsAreKeyedByRole() {
+        mbean.clear();
+        try (Session session = sessionFactory.openSession()) {
+            List<Department> departments = session.createNamedQuery("Department.findAll", Department.class).getResultList();
+            departments.forEach(department -> Hibernate.initialize(department.getEmployees()));
+        }
+        assertEquals(DEPARTMENTS, mbean.getEntityLoadCounts().get(Department.class.getName()));
+        assertTrue(mbean.getCollectionFetchCounts().get(Department.class.getName() + ".employees") > 0);
+    }
+
+    @Test
+    public void whenQueriesRun_HistogramsCountEachExecution() {
+        mbean.clear();
+        String query = "from Department d order by d.name";
+        try (Session session = sessionFactory.openSession()) {
+            for (int i = 0; i < 5; i++) {
+                session.createNamedQuery("Department.findAll", Department.class).getResultList();
+            }
+        }
+        assertEquals(5L, sum(mbean.getQueryTimeHistogram()));
+        assertEquals(5L, sum(mbean.queryTimeHistogram(query)));
+        assertEquals(QueryTimeHistogram.BOUNDS.length + 1, mbean.getQueryTimeHistogram().size());
+        assertTrue(mbean.queryTimeHistogram("from Employee").isEmpty());
+    }
+
+    @Test
+    public void whenFactoryIsClosed_MBeanIsUnregistered() throws JMException {
+        ObjectName name = StatisticsRegistration.objectName(NAME);
+        assertTrue(server.isRegistered(name));
+        sessionFactory.close();
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void whenFactoryIsNotRegistered_StatisticsAreCollectedButNotExported() throws JMException {
+        sessionFactory.close();
+        sessionFactory = configuration().buildSessionFactory();
+        assertFalse(server.isRegistered(StatisticsRegistration.objectName(NAME)));
+        assertTrue(sessionFactory.getStatistics() instanceof QueryTimingStatistics);
+    }
+
+    @Test
+    public void whenTimeIsRecorded_ItLandsInTheFirstBucketItFits() {
+        QueryTimeHistogram histogram = new QueryTimeHistogram();
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(7);
+        histogram.record(6000);
+        Map<String, Long> counts = histogram.getCounts();
+        assertEquals(2L, counts.get("<= 1 ms"));
+        assertEquals(1L, counts.get("<= 10 ms"));
+        assertEquals(1L, counts.get("> 5000 ms"));
+        assertEquals(4L, histogram.getCount());
+    }
+
+    private static Configuration configuration() {
+        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+        configuration.setProperty("hibernate.connection.driver_class", "org.h2.Driver");
+        configuration.setProperty("hibernate.connection.url", "jdbc:h2:mem:HibernateStatisticsTest;DB_CLOSE_DELAY=-1");
+        configuration.setProperty("hibernate.connection.username", "sa");
+        configuration.setProperty("hibernate.connection.password", "");
+        configuration.setProperty("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        configuration.setProperty("hibernate.cache.use_second_level_cache", "false");
+        configuration.setProperty("hibernate.cache.use_query_cache", "false");
+        configuration.setProperty(StatisticsRegistration.NAME_PROPERTY, NAME);
+        return configuration;
+    }
+
+    private static long sum(Map<String, Long> counts) {
+        return counts.values().stream().mapToLong(Long::longValue).sum();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.tenancy;
+
+import org.example.models.Department;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// every tenant is a schema of one in-memory H2 database, a new one per test
+class TenantRegistryTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private TenantRegistry registry;
+
+    @BeforeEach
+    public void createRegistry() {
+        registry = TenantRegistry.builder()
+                .property("jakarta.persistence.jdbc.url", "jdbc:h2:mem:TenantRegistryTest" + DATABASES.incrementAndGet() + ";DB_CLOSE_DELAY=-1")
+                .property("jakarta.persistence.jdbc.user", "sa")
+                .property("jakarta.persistence.jdbc.password", "")
+                .property("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .property("hibernate.show_sql", "false")
+                .idleTimeout(Duration.ofMillis(200))
+                .build();
+    }
+
+    @AfterEach
+    public void close() {
+        registry.close();
+    }
+
+    @Test
+    public void whenTenantsSaveTheSameId_EachReadsItsOwnRow() {
+        Long acmeId = saveDepartment("acme", "Acme R&D");
+        Long globexId = saveDepartment("globex", "Globex Sales");
+        assertEquals(acmeId, globexId);
+
+        // read twice so the second read comes from the second-level cache
+        for (int i = 0; i < 2; i++) {
+            assertEquals("Acme R&D", departmentName("acme", acmeId));
+            assertEquals("Globex Sales", departmentName("globex", globexId));
+        }
+    }
+
+    @Test
+    public void whenNoSessionIsOpen_TenantIsNotBootstrapped() {
+        assertTrue(registry.getActiveTenants().isEmpty());
+        saveDepartment("acme", "Acme R&D");
+        assertEquals(Set.of("acme"), registry.getActiveTenants());
+    }
+
+    @Test
+    public void whenManyThreadsOpenTheSameTenant_ItBootstrapsOnce() throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> factories = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Callable<Object> open = () -> {
+                    try (Session session = registry.openSession("acme")) {
+                        return session.getSessionFactory();
+                    }
+                };
+                factories.add(threads.submit(open));
+            }
+            Object first = factories.get(0).get();
+            for (Future<Object> factory : factories) {
+                assertSame(first, factory.get());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenTenantIsIdle_ItIsEvictedAndBootstrapsAgain() throws InterruptedException {
+        Long id = saveDepartment("acme", "Acme R&D");
+        Session open = registry.openSession("globex");
+
+        Thread.sleep(300);
+        registry.evictIdleTenants();
+        // globex still has an open session
+        assertEquals(Set.of("globex"), registry.getActiveTenants());
+        open.close();
+
+        // the schema survives the eviction
+        assertEquals("Acme R&D", departmentName("acme", id));
+    }
+
+    @Test
+    public void whenTenantIdIsNotAnIdentifier_OpenSessionFails() {
+        assertThrows(IllegalArgumentException.class, () -> registry.openSession("acme; drop schema public"));
+        assertThrows(IllegalArgumentException.class, () -> registry.openSession(null));
+    }
+
+    @Test
+    public void whenTenantHasNoRow_ReadReturnsNull() {
+        saveDepartment("acme", "Acme R&D");
+        try (Session session = registry.openSession("initech")) {
+            assertNull(session.get(Department.class, 1L));
+        }
+    }
+
+    private Long saveDepartment(String tenant, String name) {
+        try (Session session = registry.openSession(tenant)) {
+            session.beginTransaction();
+            Department department = new Department();
+            department.setName(name);
+            session.persist(department);
+            session.getTransaction().commit();
+            assertNotNull(department.getId());
+            return department.getId();
+        }
+    }
+
+    private String departmentName(String tenant, Long id) {
+        try (Session session = registry.openSession(tenant)) {
+            return session.get(Department.class, id).getName();
+        }
+    }
+}